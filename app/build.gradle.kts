@@ -32,10 +32,28 @@ android {
     buildFeatures {
         viewBinding = true
     }
+    testOptions {
+        // Robolectric tests (e.g. TrackingServiceTest) resolve app resources
+        unitTests.isIncludeAndroidResources = true
+        // DataLayerBenchmark only runs with -Pbenchmark; its options are passed through as
+        // -Pbenchmark.sizes=..., -Pbenchmark.baseline=... and so on
+        unitTests.all { test ->
+            project.properties.filterKeys { it == "benchmark" || it.startsWith("benchmark.") }
+                .forEach { (key, value) -> test.systemProperty(key, value.toString()) }
+            test.systemProperty("benchmark.outputDir",
+                layout.buildDirectory.dir("benchmark").get().asFile.absolutePath)
+            if (project.hasProperty("benchmark")) {
+                test.maxHeapSize = "4g"
+                test.outputs.upToDateWhen { false }
+                test.testLogging.showStandardStreams = true
+            }
+        }
+    }
 }
 
 dependencies {
 
+    implementation(project(":core"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.constraintlayout)
@@ -44,6 +62,8 @@ dependencies {
     implementation(libs.navigation.fragment)
     implementation(libs.navigation.ui)
     testImplementation(libs.junit)
+    testImplementation("org.robolectric:robolectric:4.13")
+    testImplementation("androidx.test:core:1.6.1")
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
     // Additional dependencies for Daily Task Tracker
@@ -54,4 +74,7 @@ dependencies {
     // Room Database
     implementation("androidx.room:room-runtime:2.6.1")
     annotationProcessor("androidx.room:room-compiler:2.6.1")
+    // Paging (keyset-paged "All Tasks" list)
+    implementation("androidx.paging:paging-runtime:3.2.1")
+    implementation("androidx.paging:paging-guava:3.2.1")
 }
\ No newline at end of file
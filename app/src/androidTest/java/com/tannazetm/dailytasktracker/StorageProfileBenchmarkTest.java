@@ -0,0 +1,108 @@
+package com.tannazetm.dailytasktracker;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.sqlite.db.SupportSQLiteQuery;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Read-while-write benchmark for the storage profiles. A writer replays the tracking UI (bursts
+ * of updateTask on in-progress tasks) while a reader keeps re-running the Home "Today" list
+ * query; read latency percentiles are logged per profile under the "StorageBenchmark" tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StorageProfileBenchmarkTest {
+
+    private static final String TAG = "StorageBenchmark";
+    private static final int TASK_COUNT = 500;
+    private static final int TRACKED_TASKS = 5;
+    private static final int BURSTS = 20;
+    private static final int UPDATES_PER_BURST = 10;
+    private static final long BURST_INTERVAL_MS = 50; // compressed 1-second ticks
+
+    @Test
+    public void readWhileWrite_allProfiles() throws Exception {
+        for (StorageProfile profile : StorageProfile.values()) {
+            List<Long> latencies = run(profile);
+            assertFalse(profile + " made no reads", latencies.isEmpty());
+
+            Collections.sort(latencies);
+            Log.i(TAG, String.format("%s: reads=%d p50=%.2fms p95=%.2fms max=%.2fms",
+                    profile, latencies.size(),
+                    percentile(latencies, 50) / 1e6,
+                    percentile(latencies, 95) / 1e6,
+                    latencies.get(latencies.size() - 1) / 1e6));
+        }
+    }
+
+    private List<Long> run(StorageProfile profile) throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        String name = "benchmark_" + profile.name().toLowerCase();
+        context.deleteDatabase(name);
+
+        // WAL needs a file-backed database, so this can't use an in-memory one
+        TaskDatabase database = TaskDatabase.build(context, name, profile);
+        try {
+            TaskDao taskDao = database.taskDao();
+            DayRange today = DayRange.today();
+            long step = (today.getEnd() - today.getStart()) / TASK_COUNT;
+
+            List<Task> tracked = new ArrayList<>();
+            for (int i = 0; i < TASK_COUNT; i++) {
+                Task task = new Task("Task " + i, "", today.getStart() + i * step, 30);
+                task.setPriority(1 + i % 3);
+                task.setId((int) taskDao.insertTask(task));
+                if (i < TRACKED_TASKS) {
+                    task.setInProgress(true);
+                    tracked.add(task);
+                }
+            }
+
+            SupportSQLiteQuery homeQuery = TaskQueryBuilder.build(
+                    new TaskFilter(today, TaskFilter.STATUS_ALL, -1, System.currentTimeMillis()));
+            List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+            AtomicBoolean writing = new AtomicBoolean(true);
+
+            Thread reader = new Thread(() -> {
+                while (writing.get()) {
+                    long start = System.nanoTime();
+                    taskDao.getTasksByFilter(homeQuery);
+                    latencies.add(System.nanoTime() - start);
+                }
+            });
+            reader.start();
+
+            for (int burst = 0; burst < BURSTS; burst++) {
+                for (int i = 0; i < UPDATES_PER_BURST; i++) {
+                    Task task = tracked.get(i % tracked.size());
+                    task.setActualDuration(task.getActualDuration() + 1);
+                    taskDao.updateTask(task);
+                }
+                Thread.sleep(BURST_INTERVAL_MS);
+            }
+            writing.set(false);
+            reader.join();
+            return new ArrayList<>(latencies);
+        } finally {
+            database.close();
+            context.deleteDatabase(name);
+        }
+    }
+
+    private static long percentile(List<Long> sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+}
@@ -0,0 +1,112 @@
+package com.tannazetm.dailytasktracker;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * TaskDao bulk writes: more ids than SQLite binds per statement, rescheduling that keeps each
+ * task's local time of day across a DST change, and filter specs resolved to ids.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TaskBulkWriteTest {
+
+    private static final long HOUR_MS = 60 * 60 * 1000L;
+    private static final long DAY_MS = 24 * HOUR_MS;
+
+    private TaskDatabase database;
+    private TaskDao taskDao;
+
+    @Before
+    public void createDb() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, TaskDatabase.class).build();
+        taskDao = database.taskDao();
+    }
+
+    @After
+    public void closeDb() {
+        database.close();
+    }
+
+    @Test
+    public void completeTasks_spansSeveralStatements() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TaskDao.MAX_IDS_PER_STATEMENT * 2 + 1; i++) {
+            Task task = new Task("Task " + i, "", i * HOUR_MS, 30);
+            task.setImmediate(i == 0);
+            tasks.add(task);
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (long id : taskDao.insertTasks(tasks)) {
+            ids.add((int) id);
+        }
+
+        assertEquals(ids.size(), taskDao.completeTasks(ids));
+        assertEquals(ids.size(), taskDao.getCompletedCount());
+        assertEquals(0, taskDao.getImmediateTaskCount());
+    }
+
+    @Test
+    public void rescheduleTasks_keepsLocalTimeAcrossDst() {
+        TimeZone defaultZone = TimeZone.getDefault();
+        // Clocks go forward on 10 March 2024
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        try {
+            Task before = new Task("Before", "", local(Calendar.MARCH, 8, 9), 30);
+            Task after = new Task("After", "", local(Calendar.MARCH, 14, 17), 30);
+            before.setId((int) taskDao.insertTask(before));
+            after.setId((int) taskDao.insertTask(after));
+
+            List<Integer> ids = new ArrayList<>();
+            ids.add(before.getId());
+            ids.add(after.getId());
+            taskDao.rescheduleTasks(ids, local(Calendar.MARCH, 11, 0));
+
+            Task moved = taskDao.getTaskById(before.getId());
+            assertEquals(local(Calendar.MARCH, 11, 9), moved.getDueTimestamp());
+            assertEquals(local(Calendar.MARCH, 11, 9), moved.getScheduledDate());
+            assertEquals(local(Calendar.MARCH, 11, 17), taskDao.getTaskById(after.getId()).getDueTimestamp());
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+    }
+
+    @Test
+    public void getTaskIdsByFilter_matchesTheFilteredList() {
+        long now = System.currentTimeMillis();
+        taskDao.insertTask(new Task("Overdue", "", now - DAY_MS, 30));
+        taskDao.insertTask(new Task("Upcoming", "", now + DAY_MS, 30));
+        Task done = new Task("Done", "", now - DAY_MS, 30);
+        done.setCompleted(true);
+        taskDao.insertTask(done);
+
+        TaskFilter overdue = TaskFilter.fromChips("all", null, "overdue", -1, now);
+        List<Integer> ids = taskDao.getTaskIdsByFilter(TaskQueryBuilder.buildIds(overdue));
+
+        assertEquals(1, ids.size());
+        assertEquals(1, taskDao.deleteTasksById(ids));
+        assertEquals(2, taskDao.getAllTasks().size());
+    }
+
+    private static long local(int month, int day, int hour) {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(2024, month, day, hour, 0);
+        return cal.getTimeInMillis();
+    }
+}
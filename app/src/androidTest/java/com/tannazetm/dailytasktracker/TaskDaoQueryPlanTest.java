@@ -0,0 +1,102 @@
+package com.tannazetm.dailytasktracker;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs every TaskDao read query, captures the SQL Room actually sends and asserts via
+ * EXPLAIN QUERY PLAN that none of them falls back to a table scan or a temp B-tree sort.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TaskDaoQueryPlanTest {
+
+    private static final long NOW = System.currentTimeMillis();
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private TaskDatabase database;
+    private TaskDao taskDao;
+    private final List<String> capturedSql = new ArrayList<>();
+    private final List<Object[]> capturedArgs = new ArrayList<>();
+
+    @Before
+    public void createDb() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, TaskDatabase.class)
+                .allowMainThreadQueries()
+                .setQueryCallback((sqlQuery, bindArgs) -> {
+                    if (sqlQuery.contains("FROM tasks") && !sqlQuery.startsWith("EXPLAIN")) {
+                        capturedSql.add(sqlQuery);
+                        capturedArgs.add(bindArgs.toArray());
+                    }
+                }, Runnable::run)
+                .build();
+        taskDao = database.taskDao();
+    }
+
+    @After
+    public void closeDb() {
+        database.close();
+    }
+
+    @Test
+    public void taskDaoQueries_useIndexesWithoutSorting() {
+        taskDao.getAllTasks();
+        taskDao.getTasksByDateRange(NOW, NOW + DAY);
+        taskDao.getCompletedTasks();
+        taskDao.getOverdueTasksAll(NOW);
+        taskDao.getTaskById(1);
+        taskDao.getImmediateTaskCount();
+        taskDao.getCompletedCount();
+        taskDao.getCompletedCountByDateRange(NOW, NOW + DAY);
+
+        // Every single-status / single-priority shape the Home chips can produce.
+        // Multi-priority sets are allowed to sort, since an IN list can't keep index order.
+        int[] statuses = {TaskFilter.STATUS_ALL, TaskFilter.STATUS_ACTIVE,
+                TaskFilter.STATUS_COMPLETED, TaskFilter.STATUS_OVERDUE};
+        DayRange[] ranges = {null, DayRange.today()};
+        int[] priorities = {-1, 3};
+        for (int status : statuses) {
+            for (DayRange range : ranges) {
+                for (int priority : priorities) {
+                    taskDao.getTasksByFilter(TaskQueryBuilder.build(
+                            new TaskFilter(range, status, priority, NOW)));
+                }
+            }
+        }
+
+        assertFalse(capturedSql.isEmpty());
+
+        SupportSQLiteDatabase db = database.getOpenHelper().getReadableDatabase();
+        List<String> failures = new ArrayList<>();
+        for (int i = 0; i < capturedSql.size(); i++) {
+            String sql = capturedSql.get(i);
+            try (Cursor cursor = db.query(new SimpleSQLiteQuery("EXPLAIN QUERY PLAN " + sql, capturedArgs.get(i)))) {
+                int detailColumn = cursor.getColumnIndexOrThrow("detail");
+                while (cursor.moveToNext()) {
+                    String detail = cursor.getString(detailColumn);
+                    if (detail.startsWith("SCAN") || detail.contains("TEMP B-TREE")) {
+                        failures.add(detail + "  <-  " + sql);
+                    }
+                }
+            }
+        }
+
+        assertTrue("Queries without a usable index:\n" + String.join("\n", failures), failures.isEmpty());
+    }
+}
@@ -0,0 +1,126 @@
+package com.tannazetm.dailytasktracker;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * The immediate-task limit under concurrent stars: TaskDao.setImmediateWithinLimit is a single
+ * conditional UPDATE, so no interleaving of parallel toggles can push the count past the limit.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TaskImmediateLimitTest {
+
+    private static final int LIMIT = 5;
+    private static final int TASK_COUNT = 100;
+    private static final int THREADS = 8;
+    private static final int TOGGLES = 800;
+
+    private TaskDatabase database;
+    private TaskDao taskDao;
+    private final List<Integer> ids = new ArrayList<>();
+
+    @Before
+    public void createDb() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        // File-backed, so the parallel toggles really run on separate connections
+        context.deleteDatabase("immediate-limit-test");
+        database = Room.databaseBuilder(context, TaskDatabase.class, "immediate-limit-test").build();
+        taskDao = database.taskDao();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            ids.add((int) taskDao.insertTask(new Task("Task " + i, "", i, 30)));
+        }
+    }
+
+    @After
+    public void closeDb() {
+        database.close();
+        InstrumentationRegistry.getInstrumentation().getTargetContext().deleteDatabase("immediate-limit-test");
+    }
+
+    @Test
+    public void parallelStars_fillTheLimitExactly() throws Exception {
+        AtomicInteger applied = new AtomicInteger();
+        runInParallel(i -> {
+            if (taskDao.setImmediateWithinLimit(ids.get(i % TASK_COUNT), true, LIMIT)) {
+                applied.incrementAndGet();
+            }
+        });
+
+        assertEquals(LIMIT, taskDao.getImmediateTaskCount());
+        // Re-starring a starred task applies too, so at least LIMIT succeeded
+        assertTrue(applied.get() >= LIMIT);
+    }
+
+    @Test
+    public void parallelToggles_neverExceedTheLimit() throws Exception {
+        AtomicInteger maxSeen = new AtomicInteger();
+        runInParallel(i -> {
+            Random random = new Random(i);
+            taskDao.setImmediateWithinLimit(ids.get(random.nextInt(TASK_COUNT)), random.nextInt(3) != 0, LIMIT);
+            int count = taskDao.getImmediateTaskCount();
+            maxSeen.accumulateAndGet(count, Math::max);
+        });
+
+        assertTrue("Saw " + maxSeen.get() + " immediate tasks", maxSeen.get() <= LIMIT);
+        assertTrue(taskDao.getImmediateTaskCount() <= LIMIT);
+    }
+
+    @Test
+    public void unstar_alwaysApplies() {
+        for (int i = 0; i < LIMIT; i++) {
+            assertTrue(taskDao.setImmediateWithinLimit(ids.get(i), true, LIMIT));
+        }
+        assertFalse(taskDao.setImmediateWithinLimit(ids.get(LIMIT), true, LIMIT));
+        // Already starred: still within the limit
+        assertTrue(taskDao.setImmediateWithinLimit(ids.get(0), true, LIMIT));
+
+        assertTrue(taskDao.setImmediateWithinLimit(ids.get(0), false, LIMIT));
+        assertTrue(taskDao.setImmediateWithinLimit(ids.get(LIMIT), true, LIMIT));
+        assertEquals(LIMIT, taskDao.getImmediateTaskCount());
+    }
+
+    // Runs TOGGLES calls of the action on THREADS threads, all released at once
+    private void runInParallel(Toggle toggle) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < TOGGLES; i++) {
+            int n = i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                toggle.run(n);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(); // rethrows a failed toggle
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+    }
+
+    private interface Toggle {
+        void run(int i);
+    }
+}
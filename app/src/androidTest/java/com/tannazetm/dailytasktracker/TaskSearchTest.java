@@ -0,0 +1,120 @@
+package com.tannazetm.dailytasktracker;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Full-text search over a 100k-row synthetic table: results must stay correct through inserts,
+ * edits and deletes (content-sync and TaskFtsSchema triggers) and come back in milliseconds.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TaskSearchTest {
+
+    private static final String TAG = "TaskSearch";
+    private static final int TASK_COUNT = 100_000;
+    private static final int LIMIT = 200;
+    private static final long MAX_MEDIAN_MS = 50;
+
+    private TaskDatabase database;
+    private TaskDao taskDao;
+
+    @Before
+    public void createDb() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, TaskDatabase.class)
+                .addCallback(TaskDatabase.FTS_TRIGGERS)
+                .build();
+        taskDao = database.taskDao();
+    }
+
+    @After
+    public void closeDb() {
+        database.close();
+    }
+
+    @Test
+    public void search_followsEditsAndDeletes() {
+        Task task = new Task("Quarterly budget review", "Prepare slides for the finance team", 0, 30);
+        task.setId((int) taskDao.insertTask(task));
+        taskDao.insertTask(new Task("Team lunch", "Budget is fine", 0, 30));
+
+        List<Task> hits = search("budg");
+        assertEquals(2, hits.size());
+        // Title hits rank first
+        assertEquals(task.getId(), hits.get(0).getId());
+        assertEquals(1, search("\"finance team\"").size());
+
+        task.setTitle("Quarterly planning");
+        task.setDescription("");
+        taskDao.updateTask(task);
+        assertEquals(1, search("budget").size());
+        assertTrue(search("finance").isEmpty());
+
+        // Partial updates leave the index entry alone
+        taskDao.setCompleted(task.getId(), true);
+        assertEquals(1, search("quarterly").size());
+
+        taskDao.deleteTask(task);
+        assertTrue(search("quarterly").isEmpty());
+    }
+
+    @Test
+    public void search_100kRows_isFast() {
+        insertSyntheticTasks();
+
+        String[] queries = {"inv", "invoice 4521", "\"client review\"", "dent", "w7", "sprint plan"};
+        for (String input : queries) {
+            List<Long> timings = new ArrayList<>();
+            for (int run = 0; run < 11; run++) {
+                long start = System.nanoTime();
+                search(input);
+                timings.add(System.nanoTime() - start);
+            }
+            Collections.sort(timings);
+            double medianMs = timings.get(timings.size() / 2) / 1e6;
+            Log.i(TAG, String.format("%-18s median=%.2fms max=%.2fms", input, medianMs,
+                    timings.get(timings.size() - 1) / 1e6));
+            assertTrue(input + " took " + medianMs + "ms", medianMs < MAX_MEDIAN_MS);
+        }
+    }
+
+    private List<Task> search(String input) {
+        TaskSearchQuery query = TaskSearchQuery.parse(input);
+        return taskDao.searchTasks(query.getMatch(), query.getTitleMatch(), LIMIT);
+    }
+
+    // Titles draw from a few hundred words plus a number, like a long-lived personal task list
+    private void insertSyntheticTasks() {
+        String[] verbs = {"review", "prepare", "call", "email", "write", "fix", "plan", "book", "pay", "update"};
+        String[] nouns = {"invoice", "report", "client", "dentist", "sprint", "budget", "slides", "car",
+                "groceries", "contract", "release", "design", "meeting", "taxes", "flight", "backlog"};
+        Random random = new Random(7);
+        long now = System.currentTimeMillis();
+        database.runInTransaction(() -> {
+            for (int i = 0; i < TASK_COUNT; i++) {
+                String title = verbs[random.nextInt(verbs.length)] + " " + nouns[random.nextInt(nouns.length)]
+                        + " " + i + " w" + random.nextInt(500);
+                String description = nouns[random.nextInt(nouns.length)] + " notes " + random.nextInt(10_000);
+                Task task = new Task(title, description, now + (i - TASK_COUNT / 2) * 60_000L, 30);
+                task.setCompleted(random.nextInt(3) == 0);
+                taskDao.insertTask(task);
+            }
+        });
+    }
+}
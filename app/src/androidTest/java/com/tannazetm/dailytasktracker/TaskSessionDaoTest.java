@@ -0,0 +1,79 @@
+package com.tannazetm.dailytasktracker;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class TaskSessionDaoTest {
+
+    private static final long MINUTE_MS = 60 * 1000L;
+
+    private TaskDatabase database;
+    private TaskSessionDao sessionDao;
+    private int taskId;
+
+    @Before
+    public void createDb() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, TaskDatabase.class).build();
+        sessionDao = database.taskSessionDao();
+        taskId = (int) database.taskDao().insertTask(new Task("Tracked"));
+    }
+
+    @After
+    public void closeDb() {
+        database.close();
+    }
+
+    @Test
+    public void sessionAcrossMidnight_isSplitPerDay() {
+        DayRange today = DayRange.today();
+        long midnight = today.getStart();
+        sessionDao.insertSessions(TaskSession.split(taskId, midnight - 10 * MINUTE_MS, midnight + 25 * MINUTE_MS));
+
+        DayRange yesterday = DayRange.dayOf(midnight - 1);
+        assertEquals(10 * MINUTE_MS, sessionDao.getTrackedMillis(yesterday.getStart(), yesterday.getEnd()));
+        assertEquals(25 * MINUTE_MS, sessionDao.getTrackedMillis(today.getStart(), today.getEnd()));
+        assertEquals(35 * MINUTE_MS, sessionDao.getTrackedMillisForTask(taskId));
+
+        List<DailyTrackedTime> days = sessionDao.getDailyTrackedTime(yesterday.getStart(), today.getEnd());
+        assertEquals(2, days.size());
+        assertEquals(10 * MINUTE_MS, days.get(0).millis);
+        assertEquals(25 * MINUTE_MS, days.get(1).millis);
+    }
+
+    @Test
+    public void subMinuteSession_isKept() {
+        Task task = database.taskDao().getTaskById(taskId);
+        task.setStartTime(System.currentTimeMillis() - 20 * 1000L);
+        task.setInProgress(true);
+        task.stopTask();
+
+        assertEquals(0, task.getActualDuration());
+        sessionDao.insertSessions(task.takeFinishedSessions());
+        assertTrue(sessionDao.getTrackedMillisForTask(taskId) >= 20 * 1000L);
+        // Handed out only once
+        assertTrue(task.takeFinishedSessions().isEmpty());
+    }
+
+    @Test
+    public void deletingTask_removesItsSessions() {
+        long now = System.currentTimeMillis();
+        sessionDao.insertSessions(TaskSession.split(taskId, now - 5 * MINUTE_MS, now));
+        database.taskDao().deleteTask(database.taskDao().getTaskById(taskId));
+
+        assertTrue(sessionDao.getSessionsForTask(taskId).isEmpty());
+    }
+}
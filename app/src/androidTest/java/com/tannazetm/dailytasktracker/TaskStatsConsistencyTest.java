@@ -0,0 +1,92 @@
+package com.tannazetm.dailytasktracker;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Replays random inserts, edits, completions and deletes against the tasks table and checks
+ * that the trigger-maintained task_stats rows always match a full recomputation.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TaskStatsConsistencyTest {
+
+    private static final int OPERATIONS = 2000;
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    private TaskDatabase database;
+    private TaskDao taskDao;
+
+    @Before
+    public void createDb() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, TaskDatabase.class)
+                .addCallback(TaskDatabase.STATS_TRIGGERS)
+                .build();
+        taskDao = database.taskDao();
+    }
+
+    @After
+    public void closeDb() {
+        database.close();
+    }
+
+    @Test
+    public void randomWrites_keepStatsConsistent() {
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        List<Task> tasks = new ArrayList<>();
+
+        for (int op = 0; op < OPERATIONS; op++) {
+            int kind = tasks.isEmpty() ? 0 : random.nextInt(4);
+            if (kind == 0) {
+                Task task = new Task("Task " + op, "", now + (random.nextInt(7) - 3) * DAY_MS, 5 + random.nextInt(60));
+                task.setPriority(1 + random.nextInt(3));
+                task.setId((int) taskDao.insertTask(task));
+                tasks.add(task);
+            } else if (kind == 3) {
+                taskDao.deleteTask(tasks.remove(random.nextInt(tasks.size())));
+            } else {
+                Task task = tasks.get(random.nextInt(tasks.size()));
+                if (kind == 1) {
+                    task.setCompleted(!task.isCompleted());
+                    task.setActualDuration(random.nextInt(90));
+                } else {
+                    task.setPriority(1 + random.nextInt(3));
+                    task.setDueTimestamp(task.getDueTimestamp() + (random.nextInt(3) - 1) * DAY_MS);
+                }
+                taskDao.updateTask(task);
+            }
+
+            if (op % 100 == 0) {
+                assertEquals("after " + op + " operations", new ArrayList<String>(),
+                        TaskStatsChecker.findMismatches(database));
+            }
+        }
+        assertTrue(TaskStatsChecker.findMismatches(database).isEmpty());
+    }
+
+    @Test
+    public void checkAndRepair_fixesDriftedRows() {
+        Task task = new Task("Task", "", System.currentTimeMillis(), 30);
+        task.setPriority(2);
+        taskDao.insertTask(task);
+        database.getOpenHelper().getWritableDatabase().execSQL("UPDATE task_stats SET taskCount = 99");
+
+        assertFalse(TaskStatsChecker.checkAndRepair(database).isEmpty());
+        assertTrue(TaskStatsChecker.findMismatches(database).isEmpty());
+    }
+}
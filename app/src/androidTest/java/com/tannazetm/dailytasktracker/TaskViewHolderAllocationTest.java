@@ -0,0 +1,103 @@
+package com.tannazetm.dailytasktracker;
+
+import android.content.Context;
+import android.os.Debug;
+import android.view.ContextThemeWrapper;
+import android.widget.FrameLayout;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Counts objects allocated by TaskViewHolder.bind in steady state (render cache warm). The
+ * per-bind count must stay flat as the number of binds grows and below a small fixed budget,
+ * i.e. bind allocates O(1) objects and nothing that scales with the work done so far.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TaskViewHolderAllocationTest {
+
+    // Strings for the duration, due and tracking labels plus what TextView.setText needs itself
+    private static final int MAX_ALLOCATIONS_PER_BIND = 120;
+
+    @SuppressWarnings("deprecation") // Debug alloc counting is deprecated but still works on ART
+    @Test
+    public void bind_allocatesConstantObjectsPerRow() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            Context context = new ContextThemeWrapper(
+                    InstrumentationRegistry.getInstrumentation().getTargetContext(),
+                    R.style.Theme_DailyTaskTracker);
+            TaskAdapter adapter = new TaskAdapter(context, null);
+            TaskAdapter.TaskViewHolder holder = adapter.onCreateViewHolder(new FrameLayout(context), 0);
+
+            List<Task> tasks = buildTasks();
+            // Warm up: fills the colorTag cache and lets views settle on their text layouts
+            bindAll(holder, tasks, 10);
+
+            double shortRun = allocationsPerBind(holder, tasks, 10);
+            double longRun = allocationsPerBind(holder, tasks, 100);
+
+            assertTrue("bind allocated " + longRun + " objects per row", longRun <= MAX_ALLOCATIONS_PER_BIND);
+            // Flat, not growing with the number of binds
+            assertTrue("allocations grew from " + shortRun + " to " + longRun + " per bind",
+                    longRun <= shortRun * 1.25 + 1);
+        });
+    }
+
+    @SuppressWarnings("deprecation")
+    private static double allocationsPerBind(TaskAdapter.TaskViewHolder holder, List<Task> tasks, int rounds) {
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        bindAll(holder, tasks, rounds);
+        Debug.stopAllocCounting();
+        return (double) Debug.getThreadAllocCount() / (rounds * tasks.size());
+    }
+
+    private static void bindAll(TaskAdapter.TaskViewHolder holder, List<Task> tasks, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            for (Task task : tasks) {
+                holder.bind(task);
+            }
+        }
+    }
+
+    // One row per visual state: plain, immediate, overdue, completed, tracking, tomorrow
+    private static List<Task> buildTasks() {
+        long now = System.currentTimeMillis();
+        DayRange tomorrow = DayRange.tomorrow();
+        List<Task> tasks = new ArrayList<>();
+
+        Task plain = new Task("Plain", "Description", now + 60 * 60 * 1000L, 30);
+        plain.setColorTag("#8B5CF6");
+        tasks.add(plain);
+
+        Task immediate = new Task("Immediate", "", now + 2 * 60 * 60 * 1000L, 45);
+        immediate.setImmediate(true);
+        immediate.setPriority(3);
+        tasks.add(immediate);
+
+        Task overdue = new Task("Overdue", "", now - 60 * 60 * 1000L, 20);
+        overdue.setPriority(1);
+        tasks.add(overdue);
+
+        Task completed = new Task("Completed", "Done", now, 15);
+        completed.setCompleted(true);
+        completed.setActualDuration(20);
+        tasks.add(completed);
+
+        Task tracking = new Task("Tracking", "", now + 30 * 60 * 1000L, 60);
+        tracking.setActualDuration(10);
+        tracking.startTask();
+        tasks.add(tracking);
+
+        tasks.add(new Task("Tomorrow", "", tomorrow.getStart() + 9 * 60 * 60 * 1000L, 90));
+        return tasks;
+    }
+}
@@ -0,0 +1,60 @@
+package com.tannazetm.dailytasktracker;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.os.SystemClock;
+import android.provider.Settings;
+
+// The app's TrackingClock: the boot time in wall-clock millis plus SystemClock.elapsedRealtime(),
+// so elapsed tracked time can't jump when the user or the network changes the wall clock and
+// keeps counting through deep sleep. The boot anchor is persisted and reused by later processes
+// of the same boot, which keeps startTime values written by an earlier process on the same scale.
+final class BootClock extends TrackingClock {
+
+    private static final String PREFS_NAME = "tracking_clock";
+    private static final String KEY_BOOT_WALL = "boot_wall";
+    private static final String KEY_BOOT_COUNT = "boot_count";
+    private static final String KEY_ELAPSED = "elapsed";
+
+    private final long bootWallMillis;
+
+    private BootClock(long bootWallMillis) {
+        this.bootWallMillis = bootWallMillis;
+    }
+
+    // elapsedRealtime() is a plain clock_gettime call, cheap enough for the 1-second tick
+    @Override
+    public long now() {
+        return bootWallMillis + SystemClock.elapsedRealtime();
+    }
+
+    // Called once per process from TaskTrackerApplication, before any task is started or stopped
+    static void install(Context context) {
+        SharedPreferences prefs = context.getApplicationContext()
+                .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        long elapsed = SystemClock.elapsedRealtime();
+        int bootCount = bootCount(context);
+
+        // Same boot: the boot counter matches (API 24+) and uptime only moved forward
+        long savedBootWall = prefs.getLong(KEY_BOOT_WALL, 0);
+        boolean sameBoot = savedBootWall != 0
+                && prefs.getInt(KEY_BOOT_COUNT, -1) == bootCount
+                && elapsed >= prefs.getLong(KEY_ELAPSED, Long.MAX_VALUE);
+        long bootWall = sameBoot ? savedBootWall : System.currentTimeMillis() - elapsed;
+
+        prefs.edit()
+                .putLong(KEY_BOOT_WALL, bootWall)
+                .putInt(KEY_BOOT_COUNT, bootCount)
+                .putLong(KEY_ELAPSED, elapsed)
+                .apply();
+        TrackingClock.set(new BootClock(bootWall));
+    }
+
+    private static int bootCount(Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+            return -1; // no boot counter, the uptime check alone has to do
+        }
+        return Settings.Global.getInt(context.getContentResolver(), Settings.Global.BOOT_COUNT, -1);
+    }
+}
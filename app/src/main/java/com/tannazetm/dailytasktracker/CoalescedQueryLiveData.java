@@ -0,0 +1,53 @@
+package com.tannazetm.dailytasktracker;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.InvalidationTracker;
+import androidx.room.RoomDatabase;
+
+import java.util.concurrent.Callable;
+
+// LiveData backed by a DAO query that re-runs itself when Room's InvalidationTracker reports a
+// write to one of the given tables. Bursts of writes are coalesced (see
+// CoalescingInvalidationObserver), so each observer sees one re-query per burst, and nothing is
+// queried while there are no active observers.
+public class CoalescedQueryLiveData<T> extends LiveData<T> {
+
+    private final InvalidationTracker invalidationTracker;
+    private final DatabaseExecutors executors;
+    private final CoalescingInvalidationObserver observer;
+
+    public CoalescedQueryLiveData(RoomDatabase database, String[] tables,
+                                  DatabaseExecutors executors, Callable<T> query) {
+        this.invalidationTracker = database.getInvalidationTracker();
+        this.executors = executors;
+        // Screen data, so it goes ahead of queued analytics reads
+        this.observer = new CoalescingInvalidationObserver(tables, executors, DatabaseExecutors.Priority.UI,
+                CoalescingInvalidationObserver.DEFAULT_WINDOW_MS, () -> {
+                    if (!hasActiveObservers()) return;
+                    try {
+                        postValue(query.call());
+                    } catch (Exception e) {
+                        throw new RuntimeException("Exception while computing database live data.", e);
+                    }
+                });
+    }
+
+    // Re-run the query now because its parameters changed (the tables didn't)
+    public void requery() {
+        observer.requestNow();
+    }
+
+    @Override
+    protected void onActive() {
+        // Registering syncs Room's triggers, which touches the database, so stay off the main thread
+        executors.read(DatabaseExecutors.Priority.UI, () -> {
+            invalidationTracker.addObserver(observer);
+            observer.requestNow();
+        });
+    }
+
+    @Override
+    protected void onInactive() {
+        executors.read(DatabaseExecutors.Priority.UI, () -> invalidationTracker.removeObserver(observer));
+    }
+}
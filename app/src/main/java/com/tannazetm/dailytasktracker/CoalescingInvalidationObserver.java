@@ -0,0 +1,78 @@
+package com.tannazetm.dailytasktracker;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import java.util.Set;
+
+// InvalidationTracker observer that collapses a burst of table invalidations into one run of
+// its action. The first invalidation schedules the action after a short window and later ones
+// ride along with it. Runs never overlap: an invalidation (or requestNow) that arrives while the
+// action is running marks it dirty, and exactly one more run starts once the current one
+// finishes, so no write is ever missed and an older run can never finish after a newer one. The
+// action runs on the shared read lane at the given priority.
+public class CoalescingInvalidationObserver extends InvalidationTracker.Observer {
+
+    public static final long DEFAULT_WINDOW_MS = 100;
+
+    private final DatabaseExecutors executors;
+    private final DatabaseExecutors.Priority priority;
+    private final long windowMillis;
+    private final Runnable action;
+
+    // Guarded by this
+    private boolean queued;
+    private boolean running;
+    private boolean dirty;
+
+    public CoalescingInvalidationObserver(String[] tables, DatabaseExecutors executors,
+                                          DatabaseExecutors.Priority priority,
+                                          long windowMillis, Runnable action) {
+        super(tables);
+        this.executors = executors;
+        this.priority = priority;
+        this.windowMillis = windowMillis;
+        this.action = action;
+    }
+
+    @Override
+    public void onInvalidated(@NonNull Set<String> tables) {
+        schedule(windowMillis);
+    }
+
+    // Run the action without waiting for the window, e.g. because its inputs changed
+    public void requestNow() {
+        schedule(0);
+    }
+
+    private synchronized void schedule(long delayMillis) {
+        if (queued) {
+            return; // this request is coalesced into the queued run
+        }
+        if (running) {
+            dirty = true; // run again once the current run finishes
+            return;
+        }
+        queued = true;
+        executors.scheduleRead(priority, this::run, delayMillis);
+    }
+
+    private void run() {
+        synchronized (this) {
+            queued = false;
+            running = true;
+        }
+        try {
+            action.run();
+        } finally {
+            synchronized (this) {
+                running = false;
+                if (dirty) {
+                    dirty = false;
+                    // The window has passed while the action ran
+                    schedule(0);
+                }
+            }
+        }
+    }
+}
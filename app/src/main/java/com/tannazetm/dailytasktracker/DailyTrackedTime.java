@@ -0,0 +1,7 @@
+package com.tannazetm.dailytasktracker;
+
+// Tracked time of one local day (yyyyMMdd, same keys as TaskStats.day), see TaskSessionDao
+public class DailyTrackedTime {
+    public int day;
+    public long millis;
+}
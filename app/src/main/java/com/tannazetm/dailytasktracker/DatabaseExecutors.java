@@ -0,0 +1,219 @@
+package com.tannazetm.dailytasktracker;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Application-wide executors for all database work. SQLite allows a single writer, so writes
+// go through one serial lane while reads share a small pool. Both lanes are priority queues:
+// UI-visible work is always taken before analytics queued at the same time. Threads time out
+// when idle, so nothing needs to be shut down by screens or view models.
+public final class DatabaseExecutors {
+
+    // Declaration order is queue order
+    public enum Priority {
+        UI,
+        ANALYTICS
+    }
+
+    private static final int READ_THREADS = 3;
+    private static final long IDLE_TIMEOUT_SECONDS = 30;
+
+    private static volatile DatabaseExecutors INSTANCE;
+
+    private final ThreadPoolExecutor readLane;
+    private final ThreadPoolExecutor writeLane;
+    private final ScheduledExecutorService scheduler; // only delays work, then hands it to a lane
+    private final LaneStats readStats = new LaneStats();
+    private final LaneStats writeStats = new LaneStats();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private DatabaseExecutors() {
+        readLane = newLane(READ_THREADS, "db-read");
+        writeLane = newLane(1, "db-write");
+        scheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("db-scheduler"));
+    }
+
+    public static DatabaseExecutors getInstance() {
+        if (INSTANCE == null) {
+            synchronized (DatabaseExecutors.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new DatabaseExecutors();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    public Future<?> read(Priority priority, Runnable task) {
+        return enqueue(readLane, readStats, priority, task);
+    }
+
+    // Read that is dropped from the queue if the owner is destroyed before it starts
+    public Future<?> read(LifecycleOwner owner, Priority priority, Runnable task) {
+        Lifecycle lifecycle = owner.getLifecycle();
+        DefaultLifecycleObserver[] observer = new DefaultLifecycleObserver[1];
+        Future<?> future = read(priority, () -> {
+            try {
+                task.run();
+            } finally {
+                mainHandler.post(() -> lifecycle.removeObserver(observer[0]));
+            }
+        });
+        observer[0] = new DefaultLifecycleObserver() {
+            @Override
+            public void onDestroy(@NonNull LifecycleOwner source) {
+                future.cancel(false);
+                lifecycle.removeObserver(this);
+            }
+        };
+        lifecycle.addObserver(observer[0]);
+        return future;
+    }
+
+    public Future<?> write(Runnable task) {
+        return enqueue(writeLane, writeStats, Priority.UI, task);
+    }
+
+    // Runs the read after a delay; the delay itself doesn't hold a lane thread
+    public void scheduleRead(Priority priority, Runnable task, long delayMillis) {
+        scheduler.schedule(() -> read(priority, task), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Runs the write after a delay, like scheduleRead
+    public void scheduleWrite(Runnable task, long delayMillis) {
+        scheduler.schedule(() -> write(task), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Executor view of the read lane, for APIs that take a plain Executor
+    public Executor readExecutor(Priority priority) {
+        return task -> read(priority, task);
+    }
+
+    // ===== Monitoring =====
+
+    public int getReadQueueDepth() { return readLane.getQueue().size(); }
+
+    public int getWriteQueueDepth() { return writeLane.getQueue().size(); }
+
+    public LaneStats getReadStats() { return readStats; }
+
+    public LaneStats getWriteStats() { return writeStats; }
+
+    // Cumulative timings for one lane. Wait is enqueue-to-start, run is start-to-finish.
+    public static final class LaneStats {
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong totalRunNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        void record(long waitNanos, long runNanos) {
+            completed.incrementAndGet();
+            totalWaitNanos.addAndGet(waitNanos);
+            totalRunNanos.addAndGet(runNanos);
+            long max;
+            do {
+                max = maxWaitNanos.get();
+            } while (waitNanos > max && !maxWaitNanos.compareAndSet(max, waitNanos));
+        }
+
+        public long getCompletedCount() { return completed.get(); }
+
+        public double getAverageWaitMillis() {
+            long count = completed.get();
+            return count == 0 ? 0 : totalWaitNanos.get() / 1e6 / count;
+        }
+
+        public double getAverageRunMillis() {
+            long count = completed.get();
+            return count == 0 ? 0 : totalRunNanos.get() / 1e6 / count;
+        }
+
+        public double getMaxWaitMillis() { return maxWaitNanos.get() / 1e6; }
+    }
+
+    // ===== Internals =====
+
+    private Future<?> enqueue(ThreadPoolExecutor lane, LaneStats stats, Priority priority, Runnable task) {
+        PrioritizedTask prioritized = new PrioritizedTask(task, priority, sequence.getAndIncrement(), stats);
+        lane.execute(prioritized);
+        return prioritized;
+    }
+
+    private static ThreadPoolExecutor newLane(int threads, String name) {
+        // Unbounded queue, so the pool never grows past its core size
+        ThreadPoolExecutor lane = new ThreadPoolExecutor(threads, threads,
+                IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<Runnable>(), namedThreads(name));
+        lane.allowCoreThreadTimeOut(true);
+        return lane;
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> new Thread(runnable, prefix + "-" + count.incrementAndGet());
+    }
+
+    // Queue entry ordered by priority, then FIFO
+    private static final class PrioritizedTask extends FutureTask<Void> implements Comparable<PrioritizedTask> {
+        private final int priority;
+        private final long sequence;
+        private final long enqueuedNanos;
+        private final LaneStats stats;
+
+        PrioritizedTask(Runnable task, Priority priority, long sequence, LaneStats stats) {
+            super(task, null);
+            this.priority = priority.ordinal();
+            this.sequence = sequence;
+            this.enqueuedNanos = System.nanoTime();
+            this.stats = stats;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            super.run();
+            stats.record(start - enqueuedNanos, System.nanoTime() - start);
+            rethrowFailure();
+        }
+
+        // Fire-and-forget callers never call get(), so surface failures like execute() would
+        private void rethrowFailure() {
+            try {
+                get();
+            } catch (ExecutionException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e.getCause());
+            } catch (InterruptedException | CancellationException ignored) {
+                // Cancelled before it ran
+            }
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            if (priority != other.priority) {
+                return Integer.compare(priority, other.priority);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -1,7 +1,16 @@
 package com.tannazetm.dailytasktracker;
 
+import android.Manifest;
+import android.content.pm.PackageManager;
+import android.os.Build;
 import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.widget.Toast;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.app.ActivityCompat;
+import androidx.core.content.ContextCompat;
 import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
 import androidx.navigation.ui.AppBarConfiguration;
@@ -11,6 +20,8 @@ import com.tannazetm.dailytasktracker.databinding.ActivityMainBinding;
 
 public class MainActivity extends AppCompatActivity {
 
+    private static final int REQUEST_NOTIFICATIONS = 1;
+
     private ActivityMainBinding binding;
 
     @Override
@@ -29,13 +40,62 @@ public class MainActivity extends AppCompatActivity {
         NavController navController = Navigation.findNavController(this, R.id.nav_host_fragment_activity_main);
         NavigationUI.setupActionBarWithNavController(this, navController, appBarConfiguration);
         NavigationUI.setupWithNavController(navView, navController);
+
+        if (savedInstanceState == null) {
+            // Repair the stats rollup if it may have drifted (e.g. time zone change)
+            TaskStatsChecker.verifyIfDue(this, TaskDatabase.getDatabase(this), DatabaseExecutors.getInstance());
+            // Tasks left tracking get their ongoing notification back
+            TrackingService.startIfTracking(this);
+            requestNotificationPermission();
+        }
+    }
+
+    // The tracking notification needs it from Android 13; tracking itself works without it
+    private void requestNotificationPermission() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(this, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            ActivityCompat.requestPermissions(this,
+                    new String[]{Manifest.permission.POST_NOTIFICATIONS}, REQUEST_NOTIFICATIONS);
+        }
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.main_menu, menu);
+        return true;
     }
 
     @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        // Clean up repository when app is destroyed
-        TaskRepository.getInstance(this).cleanup();
+    public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == R.id.action_storage_profile) {
+            showStorageProfileDialog();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    private void showStorageProfileDialog() {
+        StorageProfile[] profiles = StorageProfile.values();
+        String[] names = { // same order as StorageProfile
+                "Compatible (rollback journal)",
+                "Balanced (WAL, recommended)",
+                "Throughput (WAL, larger cache)"
+        };
+        StorageProfile current = StorageProfile.load(this);
+
+        new AlertDialog.Builder(this)
+                .setTitle("Storage profile")
+                .setSingleChoiceItems(names, current.ordinal(), (dialog, which) -> {
+                    if (profiles[which] != current) {
+                        StorageProfile.save(this, profiles[which]);
+                        // The database is opened once per process
+                        Toast.makeText(this, "Applies the next time the app starts", Toast.LENGTH_SHORT).show();
+                    }
+                    dialog.dismiss();
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
     }
 }
 
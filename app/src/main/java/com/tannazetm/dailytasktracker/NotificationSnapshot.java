@@ -0,0 +1,56 @@
+package com.tannazetm.dailytasktracker;
+
+import java.util.List;
+
+// Everything the Notifications tab shows, read in one transaction: the first rows of the
+// overdue/today/tomorrow buckets with their full sizes, the totals and the latest completions.
+// Replaces loading whole buckets (and every task, just to count them) on each tab switch.
+public class NotificationSnapshot {
+
+    // Sizes of the buckets and totals, mapped from TaskDao.getNotificationCounts()
+    public static class Counts {
+        public int overdueCount;
+        public int todayCount;
+        public int tomorrowCount;
+        public int totalCount;
+        public int completedCount;
+    }
+
+    public final List<Task> overdueTasks;
+    public final List<Task> todayTasks;
+    public final List<Task> tomorrowTasks;
+    public final List<Task> recentCompleted;
+    public final Counts counts;
+
+    private NotificationSnapshot(List<Task> overdueTasks, List<Task> todayTasks, List<Task> tomorrowTasks,
+                                 List<Task> recentCompleted, Counts counts) {
+        this.overdueTasks = overdueTasks;
+        this.todayTasks = todayTasks;
+        this.tomorrowTasks = tomorrowTasks;
+        this.recentCompleted = recentCompleted;
+        this.counts = counts;
+    }
+
+    // Runs on a background thread; limit is the number of rows kept per list
+    public static NotificationSnapshot load(TaskDatabase database, long currentTime, int limit) {
+        DayRange today = DayRange.today();
+        DayRange tomorrow = DayRange.tomorrow();
+        TaskDao dao = database.taskDao();
+        // One transaction so the lists and the counts agree with each other
+        return database.runInTransaction(() -> new NotificationSnapshot(
+                dao.getOverdueTasks(currentTime, limit),
+                dao.getTasksByDateRange(today.getStart(), today.getEnd(), limit),
+                dao.getTasksByDateRange(tomorrow.getStart(), tomorrow.getEnd(), limit),
+                dao.getRecentCompletedTasks(limit),
+                dao.getNotificationCounts(currentTime, today.getStart(), today.getEnd(),
+                        tomorrow.getStart(), tomorrow.getEnd())));
+    }
+
+    public int getActiveCount() {
+        return counts.totalCount - counts.completedCount;
+    }
+
+    public boolean isEmpty() {
+        return counts.overdueCount == 0 && counts.todayCount == 0 && counts.tomorrowCount == 0;
+    }
+}
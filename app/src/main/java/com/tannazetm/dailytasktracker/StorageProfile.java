@@ -0,0 +1,80 @@
+package com.tannazetm.dailytasktracker;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.room.RoomDatabase;
+
+// SQLite tuning applied by TaskDatabase when it opens. The chosen profile is stored in
+// SharedPreferences and read once per process, so a change applies after the app restarts.
+public enum StorageProfile {
+
+    // Rollback journal and SQLite defaults: every write fsyncs and readers wait for the writer
+    COMPATIBLE(RoomDatabase.JournalMode.TRUNCATE, null, 0, 0, 0),
+
+    // WAL so Home reads don't block behind tracking writes; NORMAL sync is still crash-safe in WAL
+    // mode (only the last commits can be lost on power failure)
+    BALANCED(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING, "NORMAL", 0, 2 * 1024, 1000),
+
+    // Bigger page cache, memory-mapped reads and fewer, larger checkpoints
+    THROUGHPUT(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING, "NORMAL", 32L * 1024 * 1024, 8 * 1024, 4000);
+
+    public static final StorageProfile DEFAULT = BALANCED;
+
+    private static final String PREFS_NAME = "storage";
+    private static final String KEY_PROFILE = "profile";
+
+    private final RoomDatabase.JournalMode journalMode;
+    private final String synchronous;    // null keeps the SQLite default (FULL)
+    private final long mmapSizeBytes;    // 0 disables memory-mapped I/O
+    private final int cacheSizeKib;      // 0 keeps the SQLite default
+    private final int walCheckpointPages; // WAL size that triggers an automatic checkpoint, 0 = default
+
+    StorageProfile(RoomDatabase.JournalMode journalMode, String synchronous, long mmapSizeBytes,
+                   int cacheSizeKib, int walCheckpointPages) {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.mmapSizeBytes = mmapSizeBytes;
+        this.cacheSizeKib = cacheSizeKib;
+        this.walCheckpointPages = walCheckpointPages;
+    }
+
+    public RoomDatabase.JournalMode getJournalMode() { return journalMode; }
+
+    public boolean isWriteAheadLogging() {
+        return journalMode == RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING;
+    }
+
+    // PRAGMAs to run on each opened connection, in order. Sort and temp tables stay in memory
+    // for every profile since the task table is small.
+    public String[] getPragmas() {
+        if (this == COMPATIBLE) {
+            return new String[0];
+        }
+        return new String[]{
+                "PRAGMA synchronous = " + synchronous,
+                "PRAGMA temp_store = MEMORY",
+                // Negative cache_size is in KiB rather than pages
+                "PRAGMA cache_size = -" + cacheSizeKib,
+                "PRAGMA mmap_size = " + mmapSizeBytes,
+                "PRAGMA wal_autocheckpoint = " + walCheckpointPages
+        };
+    }
+
+    public static StorageProfile load(Context context) {
+        String name = prefs(context).getString(KEY_PROFILE, DEFAULT.name());
+        try {
+            return valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return DEFAULT; // profile removed in a later version
+        }
+    }
+
+    public static void save(Context context, StorageProfile profile) {
+        prefs(context).edit().putString(KEY_PROFILE, profile.name()).apply();
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
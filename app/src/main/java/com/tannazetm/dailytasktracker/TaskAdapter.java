@@ -1,13 +1,13 @@
 package com.tannazetm.dailytasktracker;
 
 import android.content.Context;
-import android.graphics.Color;
 import android.graphics.Paint;
 import android.os.Handler;
 import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.CompoundButton;
 import android.widget.ImageButton;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
@@ -16,24 +16,28 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
-import androidx.core.content.ContextCompat;
-import androidx.recyclerview.widget.DiffUtil;
+import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.bottomsheet.BottomSheetDialog;
 import com.google.android.material.checkbox.MaterialCheckBox;
 
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.List;
-import java.util.Locale;
 
-public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder> {
-    private List<Task> tasks = new ArrayList<>();
+public class TaskAdapter extends ListAdapter<Task, TaskAdapter.TaskViewHolder> {
     private Context context;
     private OnTaskInteractionListener listener;
     private Handler uiHandler;
+    private final TaskRenderCache renderCache;
+    private TaskSelection selection; // non-null in multi-select mode
+
+    // Payload for the periodic tracking refresh: only the tracking text and progress bar change
+    public static final Object TICK = new Object();
+    // Payload for entering, leaving or changing multi-select: only the selection state changes
+    public static final Object SELECTION = new Object();
+
+    private static final int ALL_SECTIONS = ~0;
 
     public interface OnTaskInteractionListener {
         void onTaskCompleted(Task task);
@@ -41,18 +45,23 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
         void onTaskDeleted(Task task);
         void onTaskEdit(Task task);
         void onTaskReschedule(Task task);
+        void onTaskSelectionStarted(Task task);
+        void onTaskSelectionToggled(Task task);
     }
 
     public TaskAdapter(Context context, OnTaskInteractionListener listener) {
+        // Lists are diffed on a background thread; the main thread only applies the result
+        super(new TaskDiffCallback());
         this.context = context;
         this.listener = listener;
         this.uiHandler = new Handler(Looper.getMainLooper());
+        this.renderCache = new TaskRenderCache(context);
         setHasStableIds(true);
     }
 
     @Override
     public long getItemId(int position) {
-        return tasks.get(position).getId();
+        return getItem(position).getId();
     }
 
     @NonNull
@@ -65,67 +74,78 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull TaskViewHolder holder, int position) {
-        holder.bind(tasks.get(position));
+        holder.bind(getItem(position));
     }
 
     @Override
-    public int getItemCount() {
-        return tasks.size();
+    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position, @NonNull List<Object> payloads) {
+        bindWithPayloads(holder, getItem(position), payloads);
     }
 
-    public void setTasks(List<Task> newTasks) {
-        DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(new TaskDiffCallback(this.tasks, newTasks));
-        this.tasks.clear();
-        this.tasks.addAll(newTasks);
-        diffResult.dispatchUpdatesTo(this);
-    }
-
-    public Task getTaskAt(int position) {
-        if (position >= 0 && position < tasks.size()) {
-            return tasks.get(position);
+    // Shared with TaskPagingAdapter: TICKs and diff payloads rebind only what changed, anything
+    // else (no payload, or an unknown one) rebinds the whole row
+    static void bindWithPayloads(TaskViewHolder holder, Task task, List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            holder.bind(task);
+            return;
         }
-        return null;
-    }
-
-    private static class TaskDiffCallback extends DiffUtil.Callback {
-        private List<Task> oldList;
-        private List<Task> newList;
-
-        TaskDiffCallback(List<Task> oldList, List<Task> newList) {
-            this.oldList = oldList;
-            this.newList = newList;
+        int changes = 0;
+        boolean selectionChanged = false;
+        for (Object payload : payloads) {
+            if (payload == TICK) {
+                continue;
+            } else if (payload == SELECTION) {
+                selectionChanged = true;
+            } else if (payload instanceof Integer) {
+                changes |= (Integer) payload;
+            } else {
+                changes = ALL_SECTIONS;
+            }
         }
-
-        @Override
-        public int getOldListSize() {
-            return oldList.size();
+        if (changes != 0) {
+            holder.bindChanges(task, changes);
+        } else if (selectionChanged) {
+            holder.bindSelection(task);
+        } else {
+            holder.bindTracking(task);
         }
+    }
+
+    // Enters multi-select mode with the given selection, or leaves it for null. Rows read the
+    // selection when bound; after changing it, rebind with the SELECTION payload.
+    public void setSelection(TaskSelection selection) {
+        this.selection = selection;
+        notifyItemRangeChanged(0, getItemCount(), SELECTION);
+    }
 
-        @Override
-        public int getNewListSize() {
-            return newList.size();
+    // Sends TICK to every in-progress row; returns false when nothing is being tracked
+    public boolean notifyTrackingTick() {
+        List<Task> tasks = getCurrentList();
+        boolean tracking = false;
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i).isInProgress()) {
+                notifyItemChanged(i, TICK);
+                tracking = true;
+            }
         }
+        return tracking;
+    }
 
-        @Override
-        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
-            return oldList.get(oldItemPosition).getId() == newList.get(newItemPosition).getId();
+    public boolean hasTrackingTasks() {
+        for (Task task : getCurrentList()) {
+            if (task.isInProgress()) return true;
         }
+        return false;
+    }
 
-        @Override
-        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
-            Task oldTask = oldList.get(oldItemPosition);
-            Task newTask = newList.get(newItemPosition);
-            return oldTask.isCompleted() == newTask.isCompleted() &&
-                    oldTask.isImmediate() == newTask.isImmediate() &&
-                    oldTask.isInProgress() == newTask.isInProgress() &&
-                    oldTask.getTitle().equals(newTask.getTitle()) &&
-                    oldTask.getActualDuration() == newTask.getActualDuration() &&
-                    oldTask.getPriority() == newTask.getPriority() &&
-                    oldTask.getEstimatedDuration() == newTask.getEstimatedDuration();
+    public Task getTaskAt(int position) {
+        if (position >= 0 && position < getItemCount()) {
+            return getItem(position);
         }
+        return null;
     }
 
-    class TaskViewHolder extends RecyclerView.ViewHolder {
+    public class TaskViewHolder extends RecyclerView.ViewHolder {
         TextView titleText, descriptionText, durationText, dueTimeText, trackingTimeText;
         ImageButton playPauseButton, immediateButton, moreButton;
         MaterialCheckBox taskCheckbox;
@@ -134,6 +154,10 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
         ProgressBar progressBar;
         LinearLayout trackingInfoLayout;
 
+        // Listeners are created once per holder and act on whichever task is bound
+        private Task boundTask;
+        private final CompoundButton.OnCheckedChangeListener checkedListener;
+
         TaskViewHolder(@NonNull View itemView) {
             super(itemView);
             titleText = itemView.findViewById(R.id.taskTitle);
@@ -149,15 +173,117 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
             colorIndicator = itemView.findViewById(R.id.colorIndicator);
             progressBar = itemView.findViewById(R.id.taskProgress);
             trackingInfoLayout = itemView.findViewById(R.id.trackingInfoLayout);
+
+            checkedListener = (buttonView, isChecked) -> {
+                Task task = boundTask;
+                task.setCompleted(isChecked);
+                if (isChecked) {
+                    if (task.isImmediate()) {
+                        task.setImmediate(false);
+                    }
+                    if (task.isInProgress()) {
+                        task.stopTask();
+                    }
+                }
+                listener.onTaskCompleted(task);
+                refreshRow();
+            };
+
+            playPauseButton.setOnClickListener(v -> {
+                Task task = boundTask;
+                if (task.isInProgress()) {
+                    task.stopTask();
+                    showToast("Stopped: " + task.getFormattedActualDuration() + " tracked");
+                } else {
+                    task.startTask();
+                    showToast("Started tracking");
+                }
+                listener.onTaskCompleted(task);
+                refreshRow();
+            });
+
+            immediateButton.setOnClickListener(v -> {
+                Task task = boundTask;
+                task.setImmediate(!task.isImmediate());
+                listener.onImmediateToggled(task);
+                refreshRow();
+            });
+
+            moreButton.setOnClickListener(v -> showBottomSheetOptions(boundTask));
+
+            // In multi-select mode the row's own buttons are off (bindSelection) and any tap on
+            // it toggles the selection
+            itemView.setOnClickListener(v -> {
+                if (selection != null) {
+                    toggleSelection();
+                }
+            });
+
+            itemView.setOnLongClickListener(v -> {
+                if (selection != null) {
+                    toggleSelection();
+                    return true;
+                }
+                Task task = boundTask;
+                task.setCompleted(!task.isCompleted());
+                if (task.isCompleted()) {
+                    if (task.isImmediate()) {
+                        task.setImmediate(false);
+                    }
+                    if (task.isInProgress()) {
+                        task.stopTask();
+                    }
+                }
+                listener.onTaskCompleted(task);
+                refreshRow();
+                return true;
+            });
         }
 
         void bind(Task task) {
-            // Reset listeners to avoid issues
+            bindChanges(task, ALL_SECTIONS);
+        }
+
+        // Rebinds only the row sections named by the TaskDiffCallback.CHANGE_* flags
+        void bindChanges(Task task, int changes) {
+            boundTask = task;
+            // Detached while bindCompletion sets the checked state
             taskCheckbox.setOnCheckedChangeListener(null);
 
+            if ((changes & TaskDiffCallback.CHANGE_TEXT) != 0) bindText(task);
+            if ((changes & TaskDiffCallback.CHANGE_DURATION) != 0) bindDuration(task);
+            if ((changes & TaskDiffCallback.CHANGE_SCHEDULE) != 0) bindSchedule(task);
+            if ((changes & TaskDiffCallback.CHANGE_PRIORITY) != 0) bindPriority(task);
+            if ((changes & TaskDiffCallback.CHANGE_TRACKING) != 0) bindTrackingState(task);
+            if ((changes & TaskDiffCallback.CHANGE_COMPLETION) != 0) bindCompletion(task);
+            if ((changes & TaskDiffCallback.CHANGE_IMMEDIATE) != 0) bindImmediate(task);
+            bindSelection(task);
+            taskCheckbox.setOnCheckedChangeListener(checkedListener);
+        }
+
+        void bindSelection(Task task) {
+            boolean selecting = selection != null;
+            ((CardView) itemView).setCardBackgroundColor(selecting && selection.contains(task.getId())
+                    ? renderCache.colorSelected : renderCache.colorSurface);
+            // Not clickable, so taps fall through to the row
+            taskCheckbox.setClickable(!selecting);
+            playPauseButton.setClickable(!selecting);
+            immediateButton.setClickable(!selecting);
+            moreButton.setClickable(!selecting);
+        }
+
+        private void toggleSelection() {
+            listener.onTaskSelectionToggled(boundTask);
+            int position = getBindingAdapterPosition();
+            RecyclerView.Adapter<?> owner = getBindingAdapter();
+            if (position != RecyclerView.NO_POSITION && owner != null) {
+                owner.notifyItemChanged(position, SELECTION);
+            }
+        }
+
+        private void bindText(Task task) {
             // Set task data
             titleText.setText(task.getTitle());
-            taskCheckbox.setChecked(task.isCompleted());
 
             // Description visibility
             if (descriptionText != null) {
@@ -168,61 +294,69 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
                     descriptionText.setVisibility(View.GONE);
                 }
             }
+        }
 
+        private void bindDuration(Task task) {
             // ISSUE #1 FIX: Show estimated vs actual time comparison
-            String durationDisplay = formatDurationShort(task.getEstimatedDuration());
-            int totalTracked = task.getTotalTrackedMinutes();
+            String durationDisplay = TaskTextFormatter.formatDurationShort(task.getEstimatedDuration());
+            int totalTracked = task.getTotalTrackedMinutes(TrackingClock.get().now());
 
             if (totalTracked > 0) {
                 int difference = totalTracked - task.getEstimatedDuration();
                 if (difference > 0) {
                     // Over time
                     durationDisplay += " (+" + difference + "m)";
-                    durationText.setTextColor(ContextCompat.getColor(context, R.color.overdue));
+                    durationText.setTextColor(renderCache.colorOverdue);
                 } else if (difference < 0) {
                     // Under time
                     durationDisplay += " (" + difference + "m)";
-                    durationText.setTextColor(ContextCompat.getColor(context, R.color.completed));
+                    durationText.setTextColor(renderCache.colorCompleted);
                 } else {
                     // On time
                     durationDisplay += " (✓)";
-                    durationText.setTextColor(ContextCompat.getColor(context, R.color.accent));
+                    durationText.setTextColor(renderCache.colorAccent);
                 }
             } else {
-                durationText.setTextColor(ContextCompat.getColor(context, R.color.text_secondary));
+                durationText.setTextColor(renderCache.colorTextSecondary);
             }
             durationText.setText(durationDisplay);
+        }
 
-            dueTimeText.setText(formatDueTime(task.getDueTimestamp()));
+        private void bindSchedule(Task task) {
+            dueTimeText.setText(renderCache.formatDueTime(task.getDueTimestamp()));
 
             // Update color indicator
             if (task.isCompleted()) {
-                colorIndicator.setBackgroundColor(ContextCompat.getColor(context, R.color.completed));
+                colorIndicator.setBackgroundColor(renderCache.colorCompleted);
             } else if (task.isOverdue()) {
-                colorIndicator.setBackgroundColor(ContextCompat.getColor(context, R.color.overdue));
-                dueTimeText.setTextColor(ContextCompat.getColor(context, R.color.overdue));
+                colorIndicator.setBackgroundColor(renderCache.colorOverdue);
+                dueTimeText.setTextColor(renderCache.colorOverdue);
             } else if (task.isImmediate()) {
-                colorIndicator.setBackgroundColor(ContextCompat.getColor(context, R.color.immediate_task));
+                colorIndicator.setBackgroundColor(renderCache.colorImmediate);
             } else {
-                colorIndicator.setBackgroundColor(Color.parseColor(task.getColorTag()));
-                dueTimeText.setTextColor(ContextCompat.getColor(context, R.color.text_secondary));
+                colorIndicator.setBackgroundColor(renderCache.colorTag(task.getColorTag()));
+                dueTimeText.setTextColor(renderCache.colorTextSecondary);
             }
+        }
 
+        private void bindPriority(Task task) {
             // ISSUE #2 FIX: Show all priority levels
             if (priorityIndicator != null) {
                 priorityIndicator.setVisibility(View.VISIBLE);
                 if (task.getPriority() == 3) {
                     priorityIndicator.setImageResource(R.drawable.ic_priority_high);
-                    priorityIndicator.setColorFilter(ContextCompat.getColor(context, R.color.overdue));
+                    priorityIndicator.setColorFilter(renderCache.colorOverdue);
                 } else if (task.getPriority() == 2) {
                     priorityIndicator.setImageResource(R.drawable.ic_priority_medium);
-                    priorityIndicator.setColorFilter(ContextCompat.getColor(context, R.color.accent));
+                    priorityIndicator.setColorFilter(renderCache.colorAccent);
                 } else {
                     priorityIndicator.setImageResource(R.drawable.ic_priority_low);
-                    priorityIndicator.setColorFilter(ContextCompat.getColor(context, R.color.completed));
+                    priorityIndicator.setColorFilter(renderCache.colorCompleted);
                 }
             }
+        }
 
+        private void bindTrackingState(Task task) {
             // Tracking info - Enhanced for Issue #1
             if (task.isInProgress()) {
                 if (trackingInfoLayout != null) {
@@ -230,32 +364,8 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
                 }
                 if (progressBar != null) {
                     progressBar.setVisibility(View.VISIBLE);
-                    int progress = task.getProgress();
-                    progressBar.setProgress(Math.min(progress, 100));
-
-                    // Change progress bar color based on time status
-                    if (progress > 100) {
-                        progressBar.setProgressTintList(ContextCompat.getColorStateList(context, R.color.overdue));
-                    } else if (progress > 80) {
-                        progressBar.setProgressTintList(ContextCompat.getColorStateList(context, R.color.accent));
-                    } else {
-                        progressBar.setProgressTintList(ContextCompat.getColorStateList(context, R.color.completed));
-                    }
-                }
-                if (trackingTimeText != null) {
-                    int currentTotal = task.getTotalTrackedMinutes();
-                    String trackingText = "Tracking: " + currentTotal + "m / " +
-                            formatDurationShort(task.getEstimatedDuration());
-
-                    // Add status indicator
-                    if (currentTotal > task.getEstimatedDuration()) {
-                        trackingText += " (Over)";
-                        trackingTimeText.setTextColor(ContextCompat.getColor(context, R.color.overdue));
-                    } else {
-                        trackingTimeText.setTextColor(ContextCompat.getColor(context, R.color.text_secondary));
-                    }
-                    trackingTimeText.setText(trackingText);
                 }
+                bindTracking(task);
                 playPauseButton.setImageResource(R.drawable.ic_pause);
             } else {
                 if (trackingInfoLayout != null) {
@@ -266,6 +376,10 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
                 }
                 playPauseButton.setImageResource(R.drawable.ic_play);
             }
+        }
+
+        private void bindCompletion(Task task) {
+            taskCheckbox.setChecked(task.isCompleted());
 
             // Completion styling
             if (task.isCompleted()) {
@@ -285,96 +399,60 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
                 playPauseButton.setEnabled(true);
                 playPauseButton.setAlpha(1f);
             }
+        }
 
+        private void bindImmediate(Task task) {
             // Immediate status
             if (task.isImmediate()) {
                 immediateButton.setImageResource(R.drawable.ic_star_filled);
-                immediateButton.setColorFilter(ContextCompat.getColor(context, R.color.accent));
+                immediateButton.setColorFilter(renderCache.colorAccent);
             } else {
                 immediateButton.setImageResource(R.drawable.ic_star_outline);
-                immediateButton.setColorFilter(ContextCompat.getColor(context, R.color.text_secondary));
+                immediateButton.setColorFilter(renderCache.colorTextSecondary);
             }
-
-            // Set listeners
-            taskCheckbox.setOnCheckedChangeListener((buttonView, isChecked) -> {
-                task.setCompleted(isChecked);
-                if (isChecked) {
-                    if (task.isImmediate()) {
-                        task.setImmediate(false);
-                    }
-                    if (task.isInProgress()) {
-                        task.stopTask();
-                    }
-                }
-                listener.onTaskCompleted(task);
-            });
-
-            playPauseButton.setOnClickListener(v -> {
-                if (task.isInProgress()) {
-                    task.stopTask();
-                    showToast("Stopped: " + task.getFormattedActualDuration() + " tracked");
-                } else {
-                    task.startTask();
-                    showToast("Started tracking");
-                }
-                listener.onTaskCompleted(task);
-            });
-
-            immediateButton.setOnClickListener(v -> {
-                task.setImmediate(!task.isImmediate());
-                listener.onImmediateToggled(task);
-            });
-
-            moreButton.setOnClickListener(v -> showBottomSheetOptions(task));
-
-            itemView.setOnLongClickListener(v -> {
-                task.setCompleted(!task.isCompleted());
-                if (task.isCompleted()) {
-                    if (task.isImmediate()) {
-                        task.setImmediate(false);
-                    }
-                    if (task.isInProgress()) {
-                        task.stopTask();
-                    }
-                }
-                listener.onTaskCompleted(task);
-                return true;
-            });
         }
 
-        private String formatDurationShort(int minutes) {
-            if (minutes < 60) {
-                return minutes + "m";
-            } else {
-                int hours = minutes / 60;
-                int mins = minutes % 60;
-                return mins == 0 ? hours + "h" : hours + "h " + mins + "m";
+        // Tasks are edited in place, so the list diff can't see these edits when the write
+        // comes back; without a full rebind the row would keep its old state between ticks
+        private void refreshRow() {
+            int position = getBindingAdapterPosition();
+            RecyclerView.Adapter<?> owner = getBindingAdapter();
+            if (position != RecyclerView.NO_POSITION && owner != null) {
+                owner.notifyItemChanged(position);
             }
         }
 
-        private String formatDueTime(long timestamp) {
-            Calendar taskCal = Calendar.getInstance();
-            taskCal.setTimeInMillis(timestamp);
-
-            Calendar today = Calendar.getInstance();
-            Calendar tomorrow = Calendar.getInstance();
-            tomorrow.add(Calendar.DAY_OF_YEAR, 1);
-
-            SimpleDateFormat timeFormat = new SimpleDateFormat("h:mm a", Locale.getDefault());
-
-            if (isSameDay(taskCal, today)) {
-                return "Today " + timeFormat.format(taskCal.getTime());
-            } else if (isSameDay(taskCal, tomorrow)) {
-                return "Tomorrow " + timeFormat.format(taskCal.getTime());
-            } else {
-                SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, h:mm a", Locale.getDefault());
-                return dateFormat.format(taskCal.getTime());
+        // Tracking views of an in-progress row; also the whole rebind for a TICK payload
+        void bindTracking(Task task) {
+            // One clock read per tick, shared by the progress bar and the text
+            long now = TrackingClock.get().now();
+            if (progressBar != null) {
+                int progress = task.getProgress(now);
+                progressBar.setProgress(Math.min(progress, 100));
+
+                // Change progress bar color based on time status
+                if (progress > 100) {
+                    progressBar.setProgressTintList(renderCache.tintOverdue);
+                } else if (progress > 80) {
+                    progressBar.setProgressTintList(renderCache.tintAccent);
+                } else {
+                    progressBar.setProgressTintList(renderCache.tintCompleted);
+                }
+            }
+            if (trackingTimeText != null) {
+                int currentTotal = task.getTotalTrackedMinutes(now);
+                String trackingText = "Tracking: " + currentTotal + "m / " +
+                        TaskTextFormatter.formatDurationShort(task.getEstimatedDuration());
+
+                // Add status indicator
+                if (currentTotal > task.getEstimatedDuration()) {
+                    trackingText += " (Over)";
+                    trackingTimeText.setTextColor(renderCache.colorOverdue);
+                } else {
+                    trackingTimeText.setTextColor(renderCache.colorTextSecondary);
+                }
+                trackingTimeText.setText(trackingText);
             }
-        }
-
-        private boolean isSameDay(Calendar cal1, Calendar cal2) {
-            return cal1.get(Calendar.YEAR) == cal2.get(Calendar.YEAR) &&
-                    cal1.get(Calendar.DAY_OF_YEAR) == cal2.get(Calendar.DAY_OF_YEAR);
         }
 
         private void showToast(String message) {
@@ -409,6 +487,7 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
                     }
                 }
                 listener.onTaskCompleted(task);
+                refreshRow();
                 bottomSheet.dismiss();
                 showToast(task.isCompleted() ? "Task completed!" : "Task marked incomplete");
             });
@@ -423,6 +502,11 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
                 bottomSheet.dismiss();
             });
 
+            sheetView.findViewById(R.id.optionSelect).setOnClickListener(v -> {
+                listener.onTaskSelectionStarted(task);
+                bottomSheet.dismiss();
+            });
+
             sheetView.findViewById(R.id.optionDelete).setOnClickListener(v -> {
                 new androidx.appcompat.app.AlertDialog.Builder(context)
                         .setTitle("Delete Task")
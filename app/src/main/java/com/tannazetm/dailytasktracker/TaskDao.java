@@ -4,112 +4,244 @@ import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.Query;
+import androidx.room.RawQuery;
+import androidx.room.Transaction;
 import androidx.room.Update;
+import androidx.sqlite.db.SupportSQLiteQuery;
+import java.util.ArrayList;
 import java.util.List;
 
 @Dao
 public interface TaskDao {
 
+    // Note on "IN (0, 1)" / "IN (1, 0)" terms below: they don't change the result set (both
+    // columns are booleans) but turn the leading sort column into an equality constraint, so
+    // SQLite can walk the matching index in ORDER BY order instead of scanning and sorting.
+
     // Get all tasks
-    @Query("SELECT * FROM tasks ORDER BY isCompleted ASC, dueTimestamp ASC")
+    @Query("SELECT * FROM tasks WHERE isCompleted IN (0, 1) ORDER BY isCompleted ASC, dueTimestamp ASC")
     List<Task> getAllTasks();
 
-    // Get today's tasks
-    @Query("SELECT * FROM tasks WHERE date(dueTimestamp/1000, 'unixepoch') = date('now') ORDER BY isImmediate DESC, dueTimestamp ASC")
-    List<Task> getTodayTasks();
-
-    // Get tomorrow's tasks
-    @Query("SELECT * FROM tasks WHERE date(dueTimestamp/1000, 'unixepoch') = date('now', '+1 day') ORDER BY isImmediate DESC, dueTimestamp ASC")
-    List<Task> getTomorrowTasks();
-
-    // Get this week's tasks
-    @Query("SELECT * FROM tasks WHERE date(dueTimestamp/1000, 'unixepoch') BETWEEN date('now') AND date('now', '+7 days') ORDER BY isImmediate DESC, dueTimestamp ASC")
-    List<Task> getThisWeekTasks();
-
     // Get tasks by date range
-    @Query("SELECT * FROM tasks WHERE dueTimestamp BETWEEN :startDate AND :endDate ORDER BY isImmediate DESC, dueTimestamp ASC")
+    // Today/tomorrow/this week go through here too, with bounds from DayRange
+    @Query("SELECT * FROM tasks WHERE isImmediate IN (1, 0) AND dueTimestamp BETWEEN :startDate AND :endDate ORDER BY isImmediate DESC, dueTimestamp ASC")
     List<Task> getTasksByDateRange(long startDate, long endDate);
 
-    // Get active tasks (not completed)
-    @Query("SELECT * FROM tasks WHERE isCompleted = 0 ORDER BY isImmediate DESC, dueTimestamp ASC")
-    List<Task> getActiveTasks();
-
     // Get completed tasks
     @Query("SELECT * FROM tasks WHERE isCompleted = 1 ORDER BY dueTimestamp DESC")
     List<Task> getCompletedTasks();
 
     // Get overdue tasks
     @Query("SELECT * FROM tasks WHERE isCompleted = 0 AND dueTimestamp < :currentTime ORDER BY dueTimestamp ASC")
-    List<Task> getOverdueTasks(long currentTime);
+    List<Task> getOverdueTasksAll(long currentTime);
 
-    // Get tasks by priority
-    @Query("SELECT * FROM tasks WHERE priority = :priority ORDER BY isCompleted ASC, dueTimestamp ASC")
-    List<Task> getTasksByPriority(int priority);
+    // Notifications snapshot (see NotificationSnapshot): first rows of each bucket, same order
+    // as the full queries above
+    @Query("SELECT * FROM tasks WHERE isCompleted = 0 AND dueTimestamp < :currentTime ORDER BY dueTimestamp ASC LIMIT :limit")
+    List<Task> getOverdueTasks(long currentTime, int limit);
+
+    @Query("SELECT * FROM tasks WHERE isImmediate IN (1, 0) AND dueTimestamp BETWEEN :startDate AND :endDate ORDER BY isImmediate DESC, dueTimestamp ASC LIMIT :limit")
+    List<Task> getTasksByDateRange(long startDate, long endDate, int limit);
+
+    @Query("SELECT * FROM tasks WHERE isCompleted = 1 ORDER BY dueTimestamp DESC LIMIT :limit")
+    List<Task> getRecentCompletedTasks(int limit);
+
+    // Bucket sizes from index-only COUNTs plus the all-time totals from the task_stats rollup
+    @Query("SELECT "
+            + "(SELECT COUNT(*) FROM tasks WHERE isCompleted = 0 AND dueTimestamp < :currentTime) AS overdueCount, "
+            + "(SELECT COUNT(*) FROM tasks WHERE isImmediate IN (1, 0) AND dueTimestamp BETWEEN :todayStart AND :todayEnd) AS todayCount, "
+            + "(SELECT COUNT(*) FROM tasks WHERE isImmediate IN (1, 0) AND dueTimestamp BETWEEN :tomorrowStart AND :tomorrowEnd) AS tomorrowCount, "
+            + "(SELECT IFNULL(SUM(taskCount), 0) FROM task_stats WHERE day = 0) AS totalCount, "
+            + "(SELECT IFNULL(SUM(completedCount), 0) FROM task_stats WHERE day = 0) AS completedCount")
+    NotificationSnapshot.Counts getNotificationCounts(long currentTime, long todayStart, long todayEnd,
+                                                      long tomorrowStart, long tomorrowEnd);
+
+    // ===== Live tracking (TrackingService / TrackingCheckpointer) =====
+
+    // Few rows and no index on isInProgress; scans the table, which is fine for these callers
+    @Query("SELECT * FROM tasks WHERE isInProgress = 1 AND startTime > 0 ORDER BY startTime ASC")
+    List<Task> getInProgressTasks();
+
+    @Query("SELECT COUNT(*) FROM tasks WHERE isInProgress = 1 AND startTime > 0")
+    int getInProgressCount();
+
+    // Folds the running session of every in-progress task into its totals and restarts the
+    // session at :now, the same arithmetic as Task.stopTask + startTask. All right-hand sides see
+    // the row as it was before the UPDATE.
+    @Query("UPDATE tasks SET "
+            + "actualDuration = actualDuration + (trackedMillis + :now - startTime) / 60000 - trackedMillis / 60000, "
+            + "trackedMillis = trackedMillis + :now - startTime, "
+            + "startTime = :now "
+            + "WHERE isInProgress = 1 AND startTime > 0 AND startTime < :now")
+    int checkpointInProgressTasks(long now);
+
+    // Full-text search (build the expressions with TaskSearchQuery): tasks whose title or
+    // description match, title hits first, then active before completed and by due time
+    @Query("SELECT tasks.* FROM tasks JOIN tasks_fts ON tasks.id = tasks_fts.rowid "
+            + "WHERE tasks_fts MATCH :match "
+            + "ORDER BY (tasks.id IN (SELECT rowid FROM tasks_fts WHERE tasks_fts MATCH :titleMatch)) DESC, "
+            + "tasks.isCompleted ASC, tasks.dueTimestamp ASC LIMIT :limit")
+    List<Task> searchTasks(String match, String titleMatch, int limit);
+
+    // Get tasks for any filter combination (build the query with TaskQueryBuilder)
+    @RawQuery
+    List<Task> getTasksByFilter(SupportSQLiteQuery query);
 
-    // Get tasks with filters - ALL COMBINATIONS
-    // Status: All, Date: Custom, Priority: Specific
-    @Query("SELECT * FROM tasks WHERE dueTimestamp BETWEEN :startDate AND :endDate AND priority = :priority ORDER BY isImmediate DESC, dueTimestamp ASC")
-    List<Task> getTasksByDateAndPriority(long startDate, long endDate, int priority);
+    // Get task by ID
+    @Query("SELECT * FROM tasks WHERE id = :taskId")
+    Task getTaskById(int taskId);
 
-    // Status: Active, Date: Custom, Priority: All
-    @Query("SELECT * FROM tasks WHERE isCompleted = 0 AND dueTimestamp BETWEEN :startDate AND :endDate ORDER BY isImmediate DESC, dueTimestamp ASC")
-    List<Task> getActiveTasksByDate(long startDate, long endDate);
+    // Insert new task
+    @Insert
+    long insertTask(Task task);
 
-    // Status: Completed, Date: Custom, Priority: All
-    @Query("SELECT * FROM tasks WHERE isCompleted = 1 AND dueTimestamp BETWEEN :startDate AND :endDate ORDER BY dueTimestamp DESC")
-    List<Task> getCompletedTasksByDate(long startDate, long endDate);
+    // Update existing task; returns 0 when it no longer exists
+    @Update
+    int updateTask(Task task);
 
-    // Status: Active, Date: Custom, Priority: Specific
-    @Query("SELECT * FROM tasks WHERE isCompleted = 0 AND dueTimestamp BETWEEN :startDate AND :endDate AND priority = :priority ORDER BY isImmediate DESC, dueTimestamp ASC")
-    List<Task> getActiveTasksByDateAndPriority(long startDate, long endDate, int priority);
+    // Partial updates: only the named columns are set. SQLite still writes the whole row record,
+    // but maintains only the indexes over these columns (startTracking's touch none), and the
+    // full-text triggers (TaskFtsSchema) and task_stats trigger only fire when their columns are
+    // among them. TaskChange says which of these an edit needs. Each returns 0 when the task no
+    // longer exists.
 
-    // Status: Completed, Date: Custom, Priority: Specific
-    @Query("SELECT * FROM tasks WHERE isCompleted = 1 AND dueTimestamp BETWEEN :startDate AND :endDate AND priority = :priority ORDER BY dueTimestamp DESC")
-    List<Task> getCompletedTasksByDateAndPriority(long startDate, long endDate, int priority);
+    @Query("UPDATE tasks SET isCompleted = :completed WHERE id = :id")
+    int setCompleted(int id, boolean completed);
 
-    // Status: Overdue, Date: ignored, Priority: All
-    @Query("SELECT * FROM tasks WHERE isCompleted = 0 AND dueTimestamp < :currentTime ORDER BY dueTimestamp ASC")
-    List<Task> getOverdueTasksAll(long currentTime);
+    // No limit check: starring goes through markImmediateWithinLimit instead
+    @Query("UPDATE tasks SET isImmediate = :immediate WHERE id = :id")
+    int setImmediate(int id, boolean immediate);
 
-    // Status: Overdue, Priority: Specific
-    @Query("SELECT * FROM tasks WHERE isCompleted = 0 AND dueTimestamp < :currentTime AND priority = :priority ORDER BY dueTimestamp ASC")
-    List<Task> getOverdueTasksByPriority(long currentTime, int priority);
+    @Query("UPDATE tasks SET isInProgress = 1, startTime = :startTime WHERE id = :id")
+    int startTracking(int id, long startTime);
 
-    // Status: Active, Priority: Specific
-    @Query("SELECT * FROM tasks WHERE isCompleted = 0 AND priority = :priority ORDER BY isImmediate DESC, dueTimestamp ASC")
-    List<Task> getActiveTasksByPriority(int priority);
+    // Closes the running session at :endTime with Task.stopTask's arithmetic, applied to the
+    // stored row: a checkpoint since the caller read the task has already moved startTime and
+    // the totals on. Returns 0 when the task isn't tracking.
+    @Query("UPDATE tasks SET "
+            + "actualDuration = actualDuration + (trackedMillis + MAX(:endTime - startTime, 0)) / 60000 - trackedMillis / 60000, "
+            + "trackedMillis = trackedMillis + MAX(:endTime - startTime, 0), "
+            + "endTime = MAX(:endTime, startTime), isInProgress = 0, startTime = 0 "
+            + "WHERE id = :id AND isInProgress = 1 AND startTime > 0")
+    int stopTracking(int id, long endTime);
 
-    // Status: Completed, Priority: Specific
-    @Query("SELECT * FROM tasks WHERE isCompleted = 1 AND priority = :priority ORDER BY dueTimestamp DESC")
-    List<Task> getCompletedTasksByPriority(int priority);
+    @Query("UPDATE tasks SET dueTimestamp = :dueTimestamp, scheduledDate = :scheduledDate WHERE id = :id")
+    int reschedule(int id, long dueTimestamp, long scheduledDate);
 
-    // Get task by ID
-    @Query("SELECT * FROM tasks WHERE id = :taskId")
-    Task getTaskById(int taskId);
+    // Delete task
+    @Delete
+    void deleteTask(Task task);
+
+    // ===== Bulk writes =====
+    // One transaction (and one invalidation) for any number of rows instead of one per row. The
+    // by-id writes other than rescheduleTasks are set-based UPDATE/DELETE statements over chunks
+    // of ids, since SQLite caps the number of bound variables per statement; for "every task in
+    // a filter", get the ids with getTaskIdsByFilter(TaskQueryBuilder.buildIds(filter)) in the
+    // same transaction.
+
+    int MAX_IDS_PER_STATEMENT = 900;
 
-    // Insert new task
     @Insert
-    long insertTask(Task task);
+    List<Long> insertTasks(List<Task> tasks);
 
-    // Update existing task
     @Update
-    void updateTask(Task task);
+    int updateTasks(List<Task> tasks);
 
-    // Delete task
     @Delete
-    void deleteTask(Task task);
+    int deleteTasks(List<Task> tasks);
+
+    @RawQuery
+    List<Integer> getTaskIdsByFilter(SupportSQLiteQuery query);
+
+    @Query("SELECT * FROM tasks WHERE id IN (:ids)")
+    List<Task> getTasksByIdChunk(List<Integer> ids);
+
+    // Completing clears the immediate flag, like completing a single task in TaskAdapter
+    @Query("UPDATE tasks SET isCompleted = 1, isImmediate = 0 WHERE id IN (:ids)")
+    int completeTaskChunk(List<Integer> ids);
+
+    @Query("UPDATE tasks SET priority = :priority WHERE id IN (:ids)")
+    int setPriorityChunk(List<Integer> ids, int priority);
+
+    @Query("DELETE FROM tasks WHERE id IN (:ids)")
+    int deleteTaskChunk(List<Integer> ids);
+
+    @Transaction
+    default List<Task> getTasksByIds(List<Integer> ids) {
+        List<Task> tasks = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+            tasks.addAll(getTasksByIdChunk(ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_STATEMENT))));
+        }
+        return tasks;
+    }
+
+    @Transaction
+    default int completeTasks(List<Integer> ids) {
+        int count = 0;
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+            count += completeTaskChunk(ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_STATEMENT)));
+        }
+        return count;
+    }
+
+    // Moves tasks onto the day starting at dayStart, each keeping its local time of day. Not a
+    // set-based statement: the new time depends on the device time zone (days around a DST
+    // change aren't 24 h), so it's worked out per row with DayRange, then written with the
+    // narrow reschedule() in this one transaction.
+    @Transaction
+    default int rescheduleTasks(List<Integer> ids, long dayStart) {
+        DayRange day = DayRange.dayOf(dayStart);
+        int count = 0;
+        for (Task task : getTasksByIds(ids)) {
+            long due = day.atTimeOf(task.getDueTimestamp());
+            count += reschedule(task.getId(), due, due);
+        }
+        return count;
+    }
+
+    @Transaction
+    default int setPriority(List<Integer> ids, int priority) {
+        int count = 0;
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+            count += setPriorityChunk(ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_STATEMENT)), priority);
+        }
+        return count;
+    }
+
+    @Transaction
+    default int deleteTasksById(List<Integer> ids) {
+        int count = 0;
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+            count += deleteTaskChunk(ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_STATEMENT)));
+        }
+        return count;
+    }
 
     // Count immediate tasks that aren't completed
     @Query("SELECT COUNT(*) FROM tasks WHERE isImmediate = 1 AND isCompleted = 0")
     int getImmediateTaskCount();
 
+    // Stars a task only while fewer than :limit active tasks are starred. Check and write are
+    // one statement, and SQLite runs one write at a time, so concurrent stars can't both see
+    // room for the last slot. A task that is already starred keeps its star. Returns the number
+    // of rows changed: 0 when the limit was reached (or the task is gone).
+    @Query("UPDATE tasks SET isImmediate = 1 WHERE id = :id AND (isImmediate = 1 "
+            + "OR (SELECT COUNT(*) FROM tasks WHERE isImmediate = 1 AND isCompleted = 0) < :limit)")
+    int markImmediateWithinLimit(int id, int limit);
+
+    // Stars (within the limit) or unstars a task; true when the task now has that state
+    @Transaction
+    default boolean setImmediateWithinLimit(int id, boolean immediate, int limit) {
+        return (immediate ? markImmediateWithinLimit(id, limit) : setImmediate(id, false)) == 1;
+    }
+
     // Count completed tasks
     @Query("SELECT COUNT(*) FROM tasks WHERE isCompleted = 1")
     int getCompletedCount();
 
-    // Get today's completed count
-    @Query("SELECT COUNT(*) FROM tasks WHERE isCompleted = 1 AND date(dueTimestamp/1000, 'unixepoch') = date('now')")
-    int getTodayCompletedCount();
+    // Count completed tasks in a date range (e.g. DayRange.today())
+    @Query("SELECT COUNT(*) FROM tasks WHERE isCompleted = 1 AND dueTimestamp BETWEEN :startDate AND :endDate")
+    int getCompletedCountByDateRange(long startDate, long endDate);
 }
 
 
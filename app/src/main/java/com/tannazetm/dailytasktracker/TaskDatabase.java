@@ -1,27 +1,167 @@
 package com.tannazetm.dailytasktracker;
 
 import android.content.Context;
+import android.database.Cursor;
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
-@Database(entities = {Task.class}, version = 1, exportSchema = false)
+@Database(entities = {Task.class, TaskStats.class, TaskSession.class, TaskFts.class}, version = 7, exportSchema = false)
 public abstract class TaskDatabase extends RoomDatabase {
 
     public abstract TaskDao taskDao();
 
+    public abstract TaskStatsDao taskStatsDao();
+
+    public abstract TaskSessionDao taskSessionDao();
+
     private static volatile TaskDatabase INSTANCE;
 
+    // Version 2: composite indexes for the TaskDao filter paths (see Task)
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_status_immediate_due` "
+                    + "ON `tasks` (`isCompleted` ASC, `isImmediate` DESC, `dueTimestamp` ASC)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_status_due` "
+                    + "ON `tasks` (`isCompleted` ASC, `dueTimestamp` ASC)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_status_priority_immediate_due` "
+                    + "ON `tasks` (`isCompleted` ASC, `priority` ASC, `isImmediate` DESC, `dueTimestamp` ASC)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_priority_status_due` "
+                    + "ON `tasks` (`priority` ASC, `isCompleted` ASC, `dueTimestamp` ASC)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_immediate_due` "
+                    + "ON `tasks` (`isImmediate` DESC, `dueTimestamp` ASC)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_priority_immediate_due` "
+                    + "ON `tasks` (`priority` ASC, `isImmediate` DESC, `dueTimestamp` ASC)");
+        }
+    };
+
+    // Version 3: trigger-maintained task_stats rollup (see TaskStatsSchema)
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `task_stats` (`day` INTEGER NOT NULL, "
+                    + "`priority` INTEGER NOT NULL, `taskCount` INTEGER NOT NULL, "
+                    + "`completedCount` INTEGER NOT NULL, `minutes` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`day`, `priority`))");
+            TaskStatsSchema.createTriggers(db);
+            TaskStatsSchema.rebuild(db);
+        }
+    };
+
+    // Version 4: append-only tracking session log (see TaskSession). Time tracked before this
+    // version only exists as Task.actualDuration.
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `task_sessions` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`taskId` INTEGER NOT NULL, `startMillis` INTEGER NOT NULL, `endMillis` INTEGER NOT NULL, "
+                    + "FOREIGN KEY(`taskId`) REFERENCES `tasks`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_task_sessions_taskId` "
+                    + "ON `task_sessions` (`taskId`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_task_sessions_startMillis_endMillis` "
+                    + "ON `task_sessions` (`startMillis`, `endMillis`)");
+        }
+    };
+
+    // Version 5: millisecond tracked time behind actualDuration (see Task.stopTask)
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `tasks` ADD COLUMN `trackedMillis` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE `tasks` SET `trackedMillis` = `actualDuration` * 60000");
+        }
+    };
+
+    // Version 6: full-text index over task titles and descriptions (see TaskFts). The triggers
+    // are the ones Room generates for a content entity on a fresh install.
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `tasks_fts` USING FTS4("
+                    + "`title` TEXT, `description` TEXT, prefix=`2,3`, content=`tasks`)");
+            for (String timing : new String[]{"BEFORE_UPDATE", "BEFORE_DELETE"}) {
+                db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_" + timing
+                        + " " + timing.replace('_', ' ') + " ON `tasks` BEGIN "
+                        + "DELETE FROM `tasks_fts` WHERE `docid`=OLD.`rowid`; END");
+            }
+            for (String timing : new String[]{"AFTER_UPDATE", "AFTER_INSERT"}) {
+                db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_" + timing
+                        + " " + timing.replace('_', ' ') + " ON `tasks` BEGIN "
+                        + "INSERT INTO `tasks_fts`(`docid`, `title`, `description`) "
+                        + "VALUES (NEW.`rowid`, NEW.`title`, NEW.`description`); END");
+            }
+            // Index the existing rows
+            db.execSQL("INSERT INTO `tasks_fts`(`tasks_fts`) VALUES('rebuild')");
+        }
+    };
+
+    // Version 7: full-text update triggers limited to title and description (see TaskFtsSchema).
+    // Room drops and re-creates its own content-sync triggers around every migration, so
+    // FTS_TRIGGERS applies the same change again once the database is open.
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            TaskFtsSchema.replaceUpdateTriggers(db);
+        }
+    };
+
+    // Room creates tables but not triggers; fresh databases get them here
+    static final Callback STATS_TRIGGERS = new Callback() {
+        @Override
+        public void onCreate(@NonNull SupportSQLiteDatabase db) {
+            TaskStatsSchema.createTriggers(db);
+        }
+    };
+
+    // On every open: Room creates its content-sync triggers for TaskFts on a fresh database and
+    // after each migration, and these replace its update pair
+    static final Callback FTS_TRIGGERS = new Callback() {
+        @Override
+        public void onOpen(@NonNull SupportSQLiteDatabase db) {
+            TaskFtsSchema.replaceUpdateTriggers(db);
+        }
+    };
+
     public static TaskDatabase getDatabase(final Context context) {
         if (INSTANCE == null) {
             synchronized (TaskDatabase.class) {
                 if (INSTANCE == null) {
-                    INSTANCE = Room.databaseBuilder(context.getApplicationContext(),
-                                    TaskDatabase.class, "task_database")
-                            .build();
+                    INSTANCE = build(context, "task_database", StorageProfile.load(context));
                 }
             }
         }
         return INSTANCE;
     }
-}
\ No newline at end of file
+
+    // Also used by the storage benchmark to open the same schema under each profile
+    static TaskDatabase build(Context context, String name, StorageProfile profile) {
+        return Room.databaseBuilder(context.getApplicationContext(), TaskDatabase.class, name)
+                .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6,
+                        MIGRATION_6_7)
+                .addCallback(STATS_TRIGGERS)
+                .addCallback(FTS_TRIGGERS)
+                // In WAL mode the framework keeps a pool of read-only connections next to the
+                // writer, so the DatabaseExecutors read lane doesn't queue behind writes
+                .setJournalMode(profile.getJournalMode())
+                .addCallback(new Callback() {
+                    @Override
+                    public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                        applyPragmas(db, profile);
+                    }
+                })
+                .build();
+    }
+
+    // Some of these PRAGMAs return a row, which execSQL rejects, so they go through query()
+    private static void applyPragmas(SupportSQLiteDatabase db, StorageProfile profile) {
+        for (String pragma : profile.getPragmas()) {
+            try (Cursor cursor = db.query(pragma)) {
+                cursor.moveToFirst();
+            }
+        }
+    }
+}
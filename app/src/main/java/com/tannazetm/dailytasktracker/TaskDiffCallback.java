@@ -0,0 +1,68 @@
+package com.tannazetm.dailytasktracker;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.Objects;
+
+// Item diff for task lists. Diffing runs on a background thread (ListAdapter / PagingDataAdapter),
+// and a changed row gets an Integer payload of CHANGE_* flags so only the affected views rebind.
+public class TaskDiffCallback extends DiffUtil.ItemCallback<Task> {
+
+    // Row sections, see TaskAdapter.TaskViewHolder.bindChanges
+    public static final int CHANGE_TEXT = 1;            // title, description
+    public static final int CHANGE_DURATION = 1 << 1;   // estimate vs tracked time
+    public static final int CHANGE_SCHEDULE = 1 << 2;   // due text and the color indicator
+    public static final int CHANGE_PRIORITY = 1 << 3;
+    public static final int CHANGE_TRACKING = 1 << 4;   // tracking views and play/pause
+    public static final int CHANGE_COMPLETION = 1 << 5;
+    public static final int CHANGE_IMMEDIATE = 1 << 6;
+
+    @Override
+    public boolean areItemsTheSame(@NonNull Task oldTask, @NonNull Task newTask) {
+        return oldTask.getId() == newTask.getId();
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull Task oldTask, @NonNull Task newTask) {
+        return changesBetween(oldTask, newTask) == 0;
+    }
+
+    @Nullable
+    @Override
+    public Object getChangePayload(@NonNull Task oldTask, @NonNull Task newTask) {
+        return changesBetween(oldTask, newTask);
+    }
+
+    // CHANGE_* flags for every section whose inputs differ; 0 when the row looks the same
+    static int changesBetween(Task oldTask, Task newTask) {
+        int changes = 0;
+        if (!Objects.equals(oldTask.getTitle(), newTask.getTitle())
+                || !Objects.equals(oldTask.getDescription(), newTask.getDescription())) {
+            changes |= CHANGE_TEXT;
+        }
+        if (oldTask.getEstimatedDuration() != newTask.getEstimatedDuration()
+                || oldTask.getActualDuration() != newTask.getActualDuration()
+                || oldTask.getTrackedMillis() != newTask.getTrackedMillis()
+                || oldTask.isInProgress() != newTask.isInProgress()
+                || oldTask.getStartTime() != newTask.getStartTime()) {
+            changes |= CHANGE_DURATION | CHANGE_TRACKING;
+        }
+        if (oldTask.getDueTimestamp() != newTask.getDueTimestamp()
+                || !Objects.equals(oldTask.getColorTag(), newTask.getColorTag())) {
+            changes |= CHANGE_SCHEDULE;
+        }
+        if (oldTask.getPriority() != newTask.getPriority()) {
+            changes |= CHANGE_PRIORITY;
+        }
+        // The color indicator reflects completion and the immediate flag too
+        if (oldTask.isCompleted() != newTask.isCompleted()) {
+            changes |= CHANGE_COMPLETION | CHANGE_SCHEDULE;
+        }
+        if (oldTask.isImmediate() != newTask.isImmediate()) {
+            changes |= CHANGE_IMMEDIATE | CHANGE_SCHEDULE;
+        }
+        return changes;
+    }
+}
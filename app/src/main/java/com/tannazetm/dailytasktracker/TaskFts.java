@@ -0,0 +1,22 @@
+package com.tannazetm.dailytasktracker;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.PrimaryKey;
+
+// Full-text index over tasks(title, description) for search (see TaskSearchQuery). External
+// content table: the text lives only in tasks, and Room's content-sync triggers keep the index
+// in step on inserts and deletes; updates go through TaskFtsSchema's triggers, which only fire
+// when the title or description changes. Prefix indexes for 2 and 3 characters make the
+// "term*" queries the search bar sends cheap. Keep TaskDatabase.MIGRATION_5_6 in sync.
+@Fts4(contentEntity = Task.class, prefix = {2, 3})
+@Entity(tableName = "tasks_fts")
+public class TaskFts {
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    public int rowid;
+
+    public String title;
+    public String description;
+}
@@ -0,0 +1,27 @@
+package com.tannazetm.dailytasktracker;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+// Update triggers for the tasks_fts full-text index. Room's content-sync triggers for TaskFts
+// fire on any UPDATE of tasks, so every checkbox tap, play/pause and tracking checkpoint deleted
+// the task's index entry and tokenized its title and description again. These replace Room's two
+// update triggers with ones scoped to the indexed columns, the way TaskStatsSchema scopes its
+// rollup trigger; Room's insert and delete triggers stay as they are.
+public final class TaskFtsSchema {
+
+    private static final String INDEXED_COLUMNS = "title, description";
+
+    private TaskFtsSchema() {
+    }
+
+    public static void replaceUpdateTriggers(SupportSQLiteDatabase db) {
+        db.execSQL("DROP TRIGGER IF EXISTS room_fts_content_sync_tasks_fts_BEFORE_UPDATE");
+        db.execSQL("DROP TRIGGER IF EXISTS room_fts_content_sync_tasks_fts_AFTER_UPDATE");
+        // Before the update, while tasks still holds the old text the external-content delete reads
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS tasks_fts_before_update BEFORE UPDATE OF " + INDEXED_COLUMNS
+                + " ON tasks BEGIN DELETE FROM tasks_fts WHERE docid = OLD.rowid; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS tasks_fts_after_update AFTER UPDATE OF " + INDEXED_COLUMNS
+                + " ON tasks BEGIN INSERT INTO tasks_fts(docid, title, description) "
+                + "VALUES (NEW.rowid, NEW.title, NEW.description); END");
+    }
+}
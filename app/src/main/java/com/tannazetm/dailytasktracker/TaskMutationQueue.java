@@ -0,0 +1,89 @@
+package com.tannazetm.dailytasktracker;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Write-behind buffer for TaskRepository.updateTask: task updates that are already visible in
+// memory but not written yet. Repeated updates to the same task coalesce into one entry holding
+// the latest state, the state to restore if the write fails (from before the first update), the
+// finished sessions of every update and their callbacks. Thread-safe.
+public class TaskMutationQueue {
+
+    private final Map<Integer, Mutation> pending = new LinkedHashMap<>();
+
+    // Queues a copy of the task. previous is the task as shown before this update, null when
+    // unknown; only the first one queued for a task is kept. Returns true when the queue was
+    // empty, i.e. the caller has to schedule a flush.
+    public synchronized boolean enqueue(Task task, Task previous, List<TaskSession> sessions,
+                                        TaskRepository.OnTaskUpdatedCallback callback) {
+        boolean wasEmpty = pending.isEmpty();
+        Mutation mutation = pending.get(task.getId());
+        if (mutation == null) {
+            mutation = new Mutation(previous);
+            pending.put(task.getId(), mutation);
+        }
+        mutation.task = new Task(task);
+        mutation.sessions.addAll(sessions);
+        if (callback != null) {
+            mutation.callbacks.add(callback);
+        }
+        return wasEmpty;
+    }
+
+    // Removes and returns everything queued, in first-queued order
+    public synchronized List<Mutation> drain() {
+        List<Mutation> mutations = new ArrayList<>(pending.values());
+        pending.clear();
+        return mutations;
+    }
+
+    // Latest queued state of each task, to lay over rows read from the database
+    public synchronized Collection<Task> pendingTasks() {
+        List<Task> tasks = new ArrayList<>(pending.size());
+        for (Mutation mutation : pending.values()) {
+            tasks.add(mutation.task);
+        }
+        return tasks;
+    }
+
+    public synchronized boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    // After a failed batch the database may not hold the queued tasks' previous states, so a
+    // partial write based on them could miss columns; write those tasks in full instead
+    public synchronized void writeAllInFull() {
+        for (Mutation mutation : pending.values()) {
+            mutation.fullWrite = true;
+        }
+    }
+
+    // One task's coalesced updates
+    public static final class Mutation {
+        private final Task previous;
+        private Task task;
+        private final List<TaskSession> sessions = new ArrayList<>();
+        private final List<TaskRepository.OnTaskUpdatedCallback> callbacks = new ArrayList<>();
+        private boolean fullWrite;
+
+        Mutation(Task previous) {
+            this.previous = previous;
+        }
+
+        public Task getPrevious() { return previous; }
+
+        public Task getTask() { return task; }
+
+        public List<TaskSession> getSessions() { return sessions; }
+
+        public List<TaskRepository.OnTaskUpdatedCallback> getCallbacks() { return callbacks; }
+
+        // TaskChange flags for the columns to write; every group when the stored state isn't known
+        public int getChanges() {
+            return previous != null && !fullWrite ? TaskChange.between(previous, task) : TaskChange.ALL;
+        }
+    }
+}
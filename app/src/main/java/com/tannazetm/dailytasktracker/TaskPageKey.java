@@ -0,0 +1,32 @@
+package com.tannazetm.dailytasktracker;
+
+// Keyset position in a paged task list: the last row loaded, identified by its value of the
+// list's group column (see TaskQueryBuilder.pageGroupColumn), due time and id.
+public class TaskPageKey {
+    private final int group;
+    private final long dueTimestamp;
+    private final int id;
+
+    public TaskPageKey(int group, long dueTimestamp, int id) {
+        this.group = group;
+        this.dueTimestamp = dueTimestamp;
+        this.id = id;
+    }
+
+    // Key positioned right after the given task
+    public static TaskPageKey after(Task task, String groupColumn) {
+        int group = 0;
+        if ("isImmediate".equals(groupColumn)) {
+            group = task.isImmediate() ? 1 : 0;
+        } else if ("isCompleted".equals(groupColumn)) {
+            group = task.isCompleted() ? 1 : 0;
+        }
+        return new TaskPageKey(group, task.getDueTimestamp(), task.getId());
+    }
+
+    public int getGroup() { return group; }
+
+    public long getDueTimestamp() { return dueTimestamp; }
+
+    public int getId() { return id; }
+}
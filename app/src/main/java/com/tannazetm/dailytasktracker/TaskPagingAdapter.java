@@ -0,0 +1,78 @@
+package com.tannazetm.dailytasktracker;
+
+import android.content.Context;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+
+import java.util.List;
+
+// Paged counterpart of TaskAdapter for unbounded lists ("All Tasks"). Rows are created and
+// bound by a TaskAdapter delegate, so both modes render and behave identically.
+public class TaskPagingAdapter extends PagingDataAdapter<Task, TaskAdapter.TaskViewHolder> {
+
+    private final TaskAdapter delegate;
+
+    public TaskPagingAdapter(Context context, TaskAdapter.OnTaskInteractionListener listener) {
+        super(new TaskDiffCallback());
+        this.delegate = new TaskAdapter(context, listener);
+    }
+
+    @NonNull
+    @Override
+    public TaskAdapter.TaskViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        return delegate.onCreateViewHolder(parent, viewType);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull TaskAdapter.TaskViewHolder holder, int position) {
+        Task task = getItem(position);
+        if (task != null) {
+            holder.bind(task);
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull TaskAdapter.TaskViewHolder holder, int position, @NonNull List<Object> payloads) {
+        Task task = getItem(position);
+        if (task != null) {
+            TaskAdapter.bindWithPayloads(holder, task, payloads);
+        }
+    }
+
+    // See TaskAdapter.setSelection; the delegate's rows read it when bound
+    public void setSelection(TaskSelection selection) {
+        delegate.setSelection(selection);
+        notifyItemRangeChanged(0, getItemCount(), TaskAdapter.SELECTION);
+    }
+
+    // Sends TaskAdapter.TICK to every loaded in-progress row; false when nothing is tracked
+    public boolean notifyTrackingTick() {
+        boolean tracking = false;
+        for (int i = 0; i < getItemCount(); i++) {
+            Task task = peek(i);
+            if (task != null && task.isInProgress()) {
+                notifyItemChanged(i, TaskAdapter.TICK);
+                tracking = true;
+            }
+        }
+        return tracking;
+    }
+
+    public boolean hasTrackingTasks() {
+        for (int i = 0; i < getItemCount(); i++) {
+            Task task = peek(i);
+            if (task != null && task.isInProgress()) return true;
+        }
+        return false;
+    }
+
+    // Loaded task at the position, or null if it isn't loaded (doesn't trigger a page load)
+    public Task getTaskAt(int position) {
+        if (position >= 0 && position < getItemCount()) {
+            return peek(position);
+        }
+        return null;
+    }
+}
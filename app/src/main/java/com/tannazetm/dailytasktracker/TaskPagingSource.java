@@ -0,0 +1,60 @@
+package com.tannazetm.dailytasktracker;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.ListenableFuturePagingSource;
+import androidx.paging.PagingState;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+// Pages a filtered task list with keyset queries on (group column, dueTimestamp, id), so loading
+// page N costs the same as loading page 1 regardless of how many tasks came before it. Pages come
+// from TaskRepository, which serves them from its in-memory index when it's loaded.
+public class TaskPagingSource extends ListenableFuturePagingSource<TaskPageKey, Task> {
+
+    private final TaskRepository repository;
+    private final TaskFilter filter;
+    private final Executor executor;
+
+    public TaskPagingSource(TaskRepository repository, TaskFilter filter, Executor executor) {
+        this.repository = repository;
+        this.filter = filter;
+        this.executor = executor;
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<LoadResult<TaskPageKey, Task>> loadFuture(@NonNull LoadParams<TaskPageKey> params) {
+        ListenableFutureTask<LoadResult<TaskPageKey, Task>> task =
+                ListenableFutureTask.create(() -> loadPage(params.getKey(), params.getLoadSize()));
+        executor.execute(task);
+        return task;
+    }
+
+    private LoadResult<TaskPageKey, Task> loadPage(@Nullable TaskPageKey key, int loadSize) {
+        try {
+            String groupColumn = TaskQueryBuilder.pageGroupColumn(filter);
+            List<Task> page = repository.getPage(filter, key, loadSize);
+
+            // A short page means every group is exhausted
+            TaskPageKey nextKey = page.size() < loadSize
+                    ? null
+                    : TaskPageKey.after(page.get(page.size() - 1), groupColumn);
+            return new LoadResult.Page<>(page, null, nextKey);
+        } catch (Exception e) {
+            return new LoadResult.Error<>(e);
+        }
+    }
+
+    // Keyset pages can't be addressed by position; refresh restarts from the top of the list,
+    // which is where HomeFragment scrolls on every refresh anyway.
+    @Nullable
+    @Override
+    public TaskPageKey getRefreshKey(@NonNull PagingState<TaskPageKey, Task> state) {
+        return null;
+    }
+}
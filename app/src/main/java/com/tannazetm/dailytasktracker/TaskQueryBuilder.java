@@ -0,0 +1,196 @@
+package com.tannazetm.dailytasktracker;
+
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Builds one parameterized statement for any TaskFilter. Values are always bound, so every
+// filter with the same shape (status mode, date range on/off, number of priorities) produces
+// byte-identical SQL: the text is built once per shape here, and SQLite's per-connection
+// prepared statement cache reuses the compiled statement across chip toggles.
+public final class TaskQueryBuilder {
+
+    private static final String ORDER_IMMEDIATE_FIRST = " ORDER BY isImmediate DESC, dueTimestamp ASC";
+
+    private static final Map<String, String> sqlByShape = new ConcurrentHashMap<>();
+
+    private TaskQueryBuilder() {
+    }
+
+    public static SupportSQLiteQuery build(TaskFilter filter) {
+        int mode = filter.getMode();
+        boolean useDateRange = filter.usesDateRange();
+        int priorityCount = filter.getPriorities().size();
+
+        // The same clauses as the paged and bulk-id queries; args come out in placeholder order
+        List<String> where = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        addFilterClauses(filter, where, args);
+
+        String shape = mode + ":" + useDateRange + ":" + priorityCount;
+        String sql = sqlByShape.get(shape);
+        if (sql == null) {
+            sql = buildSql(mode, useDateRange, priorityCount, where);
+            sqlByShape.put(shape, sql);
+        }
+        return new SimpleSQLiteQuery(sql, args.toArray());
+    }
+
+    // ===== Keyset paging =====
+    // A paged list is ordered by (group column, dueTimestamp, id). The group column is a boolean
+    // that leads the normal ORDER BY (isImmediate for immediate-first lists, isCompleted for the
+    // unfiltered list) and is walked one value at a time, so every page is an index seek of the
+    // form "group = ? AND dueTimestamp >= ?" instead of an OFFSET that rereads earlier rows.
+
+    // Group column for the filter's list order, or null when the list is ordered by due time only
+    public static String pageGroupColumn(TaskFilter filter) {
+        int mode = filter.getMode();
+        String orderBy = orderByFor(mode, filter.usesDateRange());
+        if (orderBy.equals(ORDER_IMMEDIATE_FIRST)) return "isImmediate";
+        if (orderBy.startsWith(" ORDER BY isCompleted")) return "isCompleted";
+        return null;
+    }
+
+    // Group values in list order
+    public static int[] pageGroupValues(TaskFilter filter) {
+        String column = pageGroupColumn(filter);
+        if (column == null) return new int[]{0};
+        return column.equals("isImmediate") ? new int[]{1, 0} : new int[]{0, 1};
+    }
+
+    // One page of the filter's list: rows of the given group after the key (or from the start of
+    // the group when after is null). groupValue is ignored when the list has no group column.
+    public static SupportSQLiteQuery buildPage(TaskFilter filter, int groupValue, TaskPageKey after, int limit) {
+        int mode = filter.getMode();
+        boolean useDateRange = filter.usesDateRange();
+        String groupColumn = pageGroupColumn(filter);
+        boolean descending = orderByFor(mode, useDateRange).contains("dueTimestamp DESC");
+
+        List<String> where = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        addFilterClauses(filter, where, args);
+        if (groupColumn != null) {
+            where.add(groupColumn + " = ?");
+            args.add(groupValue);
+        }
+        if (after != null) {
+            // The seek term is sargable; the OR only breaks ties between rows with the same due time
+            String cmp = descending ? "<" : ">";
+            where.add("dueTimestamp " + cmp + "= ? AND (dueTimestamp " + cmp + " ? OR id " + cmp + " ?)");
+            args.add(after.getDueTimestamp());
+            args.add(after.getDueTimestamp());
+            args.add(after.getId());
+        }
+
+        String direction = descending ? "DESC" : "ASC";
+        StringBuilder sql = new StringBuilder("SELECT * FROM tasks");
+        if (!where.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        sql.append(" ORDER BY dueTimestamp ").append(direction)
+                .append(", id ").append(direction)
+                .append(" LIMIT ?");
+        args.add(limit);
+        return new SimpleSQLiteQuery(sql.toString(), args.toArray());
+    }
+
+    // ===== Bulk writes =====
+
+    // Ids of every task matching the filter, in no particular order. TaskDao's bulk writes take
+    // these, so "everything in this filter" is one set-based statement per chunk of ids.
+    public static SupportSQLiteQuery buildIds(TaskFilter filter) {
+        List<String> where = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        addFilterClauses(filter, where, args);
+
+        StringBuilder sql = new StringBuilder("SELECT id FROM tasks");
+        if (!where.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        return new SimpleSQLiteQuery(sql.toString(), args.toArray());
+    }
+
+    // ===== Shared pieces =====
+
+    private static void addFilterClauses(TaskFilter filter, List<String> where, List<Object> args) {
+        addStatusClauses(filter.getMode(), filter, where, args);
+        addPriorityClause(filter.getPriorities(), where, args);
+        if (filter.usesDateRange()) {
+            where.add("dueTimestamp BETWEEN ? AND ?");
+            args.add(filter.getStartDate());
+            args.add(filter.getEndDate());
+        }
+    }
+
+    private static String orderByFor(int mode, boolean useDateRange) {
+        switch (mode) {
+            case TaskFilter.MODE_COMPLETED:
+                return " ORDER BY dueTimestamp DESC";
+            case TaskFilter.MODE_OVERDUE:
+                return " ORDER BY dueTimestamp ASC";
+            case TaskFilter.MODE_ALL:
+                return useDateRange ? ORDER_IMMEDIATE_FIRST : " ORDER BY isCompleted ASC, dueTimestamp ASC";
+            default:
+                return ORDER_IMMEDIATE_FIRST;
+        }
+    }
+
+    private static void addStatusClauses(int mode, TaskFilter filter, List<String> where, List<Object> args) {
+        switch (mode) {
+            case TaskFilter.MODE_ACTIVE:
+                where.add("isCompleted = 0");
+                break;
+            case TaskFilter.MODE_COMPLETED:
+                where.add("isCompleted = 1");
+                break;
+            case TaskFilter.MODE_OVERDUE:
+                where.add("isCompleted = 0");
+                where.add("dueTimestamp < ?");
+                args.add(filter.getCurrentTime());
+                break;
+            case TaskFilter.MODE_COMPLETED_OR_OVERDUE:
+                where.add("(isCompleted = 1 OR dueTimestamp < ?)");
+                args.add(filter.getCurrentTime());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void addPriorityClause(List<Integer> priorities, List<String> where, List<Object> args) {
+        if (priorities.size() == 1) {
+            where.add("priority = ?");
+        } else if (priorities.size() > 1) {
+            StringBuilder in = new StringBuilder("priority IN (?");
+            for (int i = 1; i < priorities.size(); i++) {
+                in.append(", ?");
+            }
+            where.add(in.append(")").toString());
+        }
+        args.addAll(priorities);
+    }
+
+    // The filter clauses plus the index hints of the hand-tuned TaskDao queries, so each
+    // single-status shape keeps hitting the indexes declared on Task (see TaskDao for the
+    // "IN (1, 0)" trick). The hints bind nothing, so the filter clauses' bind order still holds.
+    private static String buildSql(int mode, boolean useDateRange, int priorityCount, List<String> filterClauses) {
+        List<String> where = new ArrayList<>(filterClauses);
+        String orderBy = orderByFor(mode, useDateRange);
+        if (where.isEmpty() && mode == TaskFilter.MODE_ALL) {
+            where.add("isCompleted IN (0, 1)");
+        }
+        if (useDateRange && orderBy.equals(ORDER_IMMEDIATE_FIRST)) {
+            where.add("isImmediate IN (1, 0)");
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM tasks");
+        if (!where.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        return sql.append(orderBy).toString();
+    }
+}
@@ -0,0 +1,65 @@
+package com.tannazetm.dailytasktracker;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.graphics.Color;
+
+import androidx.core.content.ContextCompat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Per-adapter cache of what TaskViewHolder.bind used to resolve or allocate for every row:
+// resource colors, parsed colorTags, and the date formatters and day boundaries behind the
+// "Today"/"Tomorrow" labels (TaskTextFormatter). Binding happens on the main thread only, so
+// nothing is synchronized.
+final class TaskRenderCache {
+
+    final int colorOverdue;
+    final int colorCompleted;
+    final int colorAccent;
+    final int colorImmediate;
+    final int colorTextSecondary;
+    final int colorSurface;
+    final int colorSelected;
+    final ColorStateList tintOverdue;
+    final ColorStateList tintAccent;
+    final ColorStateList tintCompleted;
+
+    private final int colorTagFallback;
+    private final Map<String, Integer> colorTags = new HashMap<>();
+
+    private final TaskTextFormatter textFormatter = new TaskTextFormatter();
+
+    TaskRenderCache(Context context) {
+        colorOverdue = ContextCompat.getColor(context, R.color.overdue);
+        colorCompleted = ContextCompat.getColor(context, R.color.completed);
+        colorAccent = ContextCompat.getColor(context, R.color.accent);
+        colorImmediate = ContextCompat.getColor(context, R.color.immediate_task);
+        colorTextSecondary = ContextCompat.getColor(context, R.color.text_secondary);
+        colorSurface = ContextCompat.getColor(context, R.color.surface);
+        colorSelected = ContextCompat.getColor(context, R.color.selected_task);
+        tintOverdue = ColorStateList.valueOf(colorOverdue);
+        tintAccent = ColorStateList.valueOf(colorAccent);
+        tintCompleted = ColorStateList.valueOf(colorCompleted);
+        colorTagFallback = ContextCompat.getColor(context, R.color.primary);
+    }
+
+    // Parsed once per distinct tag; a malformed tag falls back to the default task blue
+    int colorTag(String tag) {
+        Integer color = colorTags.get(tag);
+        if (color == null) {
+            try {
+                color = Color.parseColor(tag);
+            } catch (IllegalArgumentException | NullPointerException e) {
+                color = colorTagFallback;
+            }
+            colorTags.put(tag, color);
+        }
+        return color;
+    }
+
+    String formatDueTime(long timestamp) {
+        return textFormatter.formatDueTime(timestamp);
+    }
+}
@@ -1,34 +1,49 @@
 package com.tannazetm.dailytasktracker;
 
 import android.content.Context;
-import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
+// Single entry point for task reads and writes. Filtered lists are answered from an in-memory
+// TaskIndex, loaded from SQLite on first use and updated by every write made here, so switching
+// the Home chips on a warm app never touches the database. Updates are shown from memory at once
+// and written behind (TaskMutationQueue). Task writes must go through this class: one that
+// bypasses it leaves the index stale until invalidateCache().
 public class TaskRepository {
+    // Above this many tasks the table isn't mirrored in memory and reads go to SQLite
+    static final int MAX_INDEXED_TASKS = 20000;
+    private static final int MAX_IMMEDIATE_TASKS = 5;
+    // Updates wait this long before being written, so quick repeated changes become one write
+    static final long WRITE_BEHIND_DELAY_MS = 200;
+
     private static TaskRepository instance;
+    private final TaskDatabase database;
     private final TaskDao taskDao;
-    private final ExecutorService executorService;
-    private final MutableLiveData<List<Task>> todayTasksLiveData;
-    private final MutableLiveData<Integer> immediateCountLiveData;
-    private final MutableLiveData<Integer> completedCountLiveData;
-
-    // Cache to avoid repeated database calls
-    private List<Task> cachedTodayTasks;
-    private long lastCacheTime = 0;
-    private static final long CACHE_VALIDITY = 5000; // 5 seconds cache
+    private final DatabaseExecutors executors;
+    private final int maxIndexedTasks;
+    private final TaskIndex index = new TaskIndex();
+    private final Object indexLoadLock = new Object();
+    private final TaskMutationQueue mutations = new TaskMutationQueue();
 
     private TaskRepository(Context context) {
-        TaskDatabase database = TaskDatabase.getDatabase(context);
+        // Executors shared with the rest of the app
+        this(TaskDatabase.getDatabase(context), DatabaseExecutors.getInstance(), MAX_INDEXED_TASKS);
+    }
+
+    // Tests build their own over an in-memory database, with a lower index threshold
+    TaskRepository(TaskDatabase database, DatabaseExecutors executors, int maxIndexedTasks) {
+        this.database = database;
+        this.executors = executors;
+        this.maxIndexedTasks = maxIndexedTasks;
         taskDao = database.taskDao();
-        executorService = Executors.newFixedThreadPool(4); // Thread pool for better performance
-        todayTasksLiveData = new MutableLiveData<>();
-        immediateCountLiveData = new MutableLiveData<>();
-        completedCountLiveData = new MutableLiveData<>();
     }
 
+    // One instance per process: the index has to see every write
     public static synchronized TaskRepository getInstance(Context context) {
         if (instance == null) {
             instance = new TaskRepository(context.getApplicationContext());
@@ -36,48 +51,103 @@ public class TaskRepository {
         return instance;
     }
 
-    // Get today's tasks with caching
-    public LiveData<List<Task>> getTodayTasks() {
-        long currentTime = System.currentTimeMillis();
-        if (cachedTodayTasks == null || (currentTime - lastCacheTime) > CACHE_VALIDITY) {
-            refreshTodayTasks();
+    // Filtered task list in TaskQueryBuilder order. Blocking, call from a read lane.
+    public List<Task> getTasks(TaskFilter filter) {
+        List<Task> tasks = loadIndex() ? index.query(filter) : null;
+        if (tasks != null) return tasks;
+        return withPendingUpdates(taskDao.getTasksByFilter(TaskQueryBuilder.build(filter)));
+    }
+
+    // Up to limit tasks of the filtered list following the key (from the top for null), in the
+    // order of TaskQueryBuilder's page groups. Blocking, call from a read lane.
+    public List<Task> getPage(TaskFilter filter, TaskPageKey key, int limit) {
+        if (loadIndex()) {
+            List<Task> page = index.page(filter, key != null ? key.getId() : null, limit);
+            if (page != null) return page;
+            // The key's row was deleted or left the filter; its keyset position still works below
         }
-        return todayTasksLiveData;
+
+        String groupColumn = TaskQueryBuilder.pageGroupColumn(filter);
+        int[] groups = TaskQueryBuilder.pageGroupValues(filter);
+
+        // Resume in the key's group, then spill over into the following groups
+        int startGroup = 0;
+        if (key != null && groupColumn != null) {
+            while (startGroup < groups.length && groups[startGroup] != key.getGroup()) {
+                startGroup++;
+            }
+        }
+
+        List<Task> page = new ArrayList<>();
+        for (int i = startGroup; i < groups.length && page.size() < limit; i++) {
+            TaskPageKey after = i == startGroup ? key : null;
+            page.addAll(taskDao.getTasksByFilter(
+                    TaskQueryBuilder.buildPage(filter, groups[i], after, limit - page.size())));
+        }
+        return withPendingUpdates(page);
     }
 
-    public void refreshTodayTasks() {
-        executorService.execute(() -> {
-            cachedTodayTasks = taskDao.getTodayTasks();
-            lastCacheTime = System.currentTimeMillis();
-            todayTasksLiveData.postValue(cachedTodayTasks);
-            updateCounters();
-        });
+    // SQLite still has the rows as they were before the queued updates; show the queued state
+    // instead, as loadIndex() does for the index, so an optimistic change doesn't flip back until
+    // its flush. Rows keep their place until the write moves them.
+    private List<Task> withPendingUpdates(List<Task> rows) {
+        Map<Integer, Task> pending = new HashMap<>();
+        for (Task task : mutations.pendingTasks()) {
+            pending.put(task.getId(), task);
+        }
+        if (pending.isEmpty()) return rows;
+        List<Task> tasks = new ArrayList<>(rows.size());
+        for (Task row : rows) {
+            Task queued = pending.get(row.getId());
+            tasks.add(queued != null ? new Task(queued) : row);
+        }
+        return tasks;
     }
 
-    // Get counters as LiveData for automatic UI updates
-    public LiveData<Integer> getImmediateCount() {
-        return immediateCountLiveData;
+    // Loads the index on first use; false when the table is too big to mirror
+    private boolean loadIndex() {
+        if (index.isLoaded()) return true;
+        synchronized (indexLoadLock) {
+            if (index.isLoaded()) return true;
+            // Row count from the task_stats rollup, cheaper than COUNT(*) over tasks
+            if (database.taskStatsDao().getTotals().taskCount > maxIndexedTasks) return false;
+            // In a transaction, so no write is between SQLite and the index while the snapshot is read
+            database.runInTransaction(() -> {
+                index.load(taskDao.getAllTasks());
+                index.putAll(mutations.pendingTasks());
+            });
+            return true;
+        }
     }
 
-    public LiveData<Integer> getCompletedCount() {
-        return completedCountLiveData;
+    // Drops the in-memory index (on memory pressure, or after writing tasks behind this class's
+    // back); the next read reloads it
+    public void invalidateCache() {
+        index.clear();
     }
 
-    private void updateCounters() {
-        executorService.execute(() -> {
-            int immediateCount = taskDao.getImmediateTaskCount();
-            int completedCount = taskDao.getTodayCompletedCount();
-            immediateCountLiveData.postValue(immediateCount);
-            completedCountLiveData.postValue(completedCount);
-        });
+    // Runs a write and the matching index update in one transaction, so the index already has
+    // the change when Room's invalidation makes observers re-read. A failed write is rolled back
+    // but may have reached the index, which is dropped instead. Queued updates are written
+    // first, so writes still reach the database in the order they were made.
+    private <T> T writeThrough(Callable<T> write) {
+        flushUpdates();
+        try {
+            return database.runInTransaction(write);
+        } catch (RuntimeException e) {
+            index.clear();
+            throw e;
+        }
     }
 
     // Insert task with callback
     public void insertTask(Task task, OnTaskInsertedCallback callback) {
-        executorService.execute(() -> {
-            long taskId = taskDao.insertTask(task);
-            task.setId((int) taskId);
-            refreshTodayTasks(); // This will update LiveData
+        executors.write(() -> {
+            writeThrough(() -> {
+                task.setId((int) taskDao.insertTask(task));
+                index.put(task);
+                return null;
+            });
             if (callback != null) {
                 callback.onTaskInserted(task);
             }
@@ -86,33 +156,298 @@ public class TaskRepository {
 
     // Update task
     public void updateTask(Task task) {
-        executorService.execute(() -> {
-            taskDao.updateTask(task);
-            refreshTodayTasks();
-        });
+        updateTask(task, null);
+    }
+
+    // Optimistic: the index has the update as soon as this returns, so the next list read shows
+    // it, while the write itself is queued. Updates made within WRITE_BEHIND_DELAY_MS are
+    // coalesced per task and written in one transaction, each touching only the columns it
+    // changed (see write()); if that fails, the index goes back to the tasks as they were. The
+    // callback runs on the write lane once the outcome is known.
+    public void updateTask(Task task, OnTaskUpdatedCallback callback) {
+        // Taken on the calling thread, before a new session could start on the same task
+        List<TaskSession> sessions = task.takeFinishedSessions();
+        if (mutations.enqueue(task, index.get(task.getId()), sessions, callback)) {
+            executors.scheduleWrite(this::flushUpdates, WRITE_BEHIND_DELAY_MS);
+        }
+        index.put(task);
+    }
+
+    // Write lane
+    private void flushUpdates() {
+        List<TaskMutationQueue.Mutation> batch = mutations.drain();
+        if (batch.isEmpty()) return;
+        // Written without the star the immediate-task limit refused
+        List<TaskMutationQueue.Mutation> refused = new ArrayList<>();
+        try {
+            database.runInTransaction(() -> {
+                for (TaskMutationQueue.Mutation mutation : batch) {
+                    Task task = mutation.getTask();
+                    boolean starred = task.isImmediate();
+                    if (write(task, mutation.getChanges(), mutation.getSessions()) == 0) {
+                        // Deleted before its update was written
+                        index.remove(task.getId());
+                        continue;
+                    }
+                    if (starred && !task.isImmediate()) {
+                        refused.add(mutation);
+                    }
+                    // Again, in case the index was reloaded from the database since the update
+                    index.put(task);
+                }
+                // Newer updates to the same tasks, queued while this batch was taken
+                index.putAll(mutations.pendingTasks());
+            });
+        } catch (RuntimeException e) {
+            rollBack(batch);
+            for (TaskMutationQueue.Mutation mutation : batch) {
+                for (OnTaskUpdatedCallback callback : mutation.getCallbacks()) {
+                    callback.onTaskUpdateFailed();
+                }
+            }
+            return;
+        }
+        for (TaskMutationQueue.Mutation mutation : batch) {
+            for (OnTaskUpdatedCallback callback : mutation.getCallbacks()) {
+                if (refused.contains(mutation)) {
+                    callback.onTaskUpdateFailed();
+                } else {
+                    callback.onTaskUpdated(mutation.getTask());
+                }
+            }
+        }
+    }
+
+    // Writes only the column groups that changed (TaskChange), falling back to the full-row
+    // @Update when anything outside them did. Returns 0 when the task no longer exists.
+    // Starring goes through the immediate-task limit like writeImmediate; a refused star is
+    // cleared on the task and the rest of the update is still written. Tracking goes through
+    // writeTracking, so the task comes out with the stored tracking columns.
+    private int write(Task task, int changes, List<TaskSession> finished) {
+        int id = task.getId();
+        boolean fullRow = changes == 0 || (changes & TaskChange.OTHER) != 0;
+        int rows = 0;
+        if ((changes & TaskChange.IMMEDIATE) != 0 && task.isImmediate()) {
+            rows = taskDao.markImmediateWithinLimit(id, MAX_IMMEDIATE_TASKS);
+            if (rows == 0) {
+                if (taskDao.getTaskById(id) == null) return 0;
+                // Refused: the stored row is still unstarred
+                task.setImmediate(false);
+                rows = 1;
+            }
+            changes &= ~TaskChange.IMMEDIATE;
+        }
+        if (fullRow || !finished.isEmpty()
+                || (changes & (TaskChange.TRACKING_START | TaskChange.TRACKING_TOTALS)) != 0) {
+            if (!writeTracking(task, finished)) return 0;
+            rows = 1;
+        }
+        if (fullRow) {
+            // Carries the star as it now stands, and the tracking columns as stored
+            return taskDao.updateTask(task);
+        }
+        if ((changes & TaskChange.COMPLETION) != 0) {
+            rows |= taskDao.setCompleted(id, task.isCompleted());
+        }
+        if ((changes & TaskChange.IMMEDIATE) != 0) {
+            rows |= taskDao.setImmediate(id, false);
+        }
+        if ((changes & TaskChange.SCHEDULE) != 0) {
+            rows |= taskDao.reschedule(id, task.getDueTimestamp(), task.getScheduledDate());
+        }
+        return rows;
+    }
+
+    // Replays the update's stops and starts against the stored row instead of writing the
+    // queued copy's tracking columns: the copy may have been read before a checkpoint, so its
+    // startTime and totals would count the checkpointed stretch again. Each stop closes the
+    // session the row holds (TaskDao.stopTracking) and is logged from the stored startTime;
+    // finished holds the copy's sessions, which only say when each stop happened. Copies the
+    // stored tracking columns onto the task; false when the task no longer exists.
+    private boolean writeTracking(Task task, List<TaskSession> finished) {
+        int id = task.getId();
+        List<TaskSession> sessions = new ArrayList<>();
+        for (long[] stretch : stretches(finished)) {
+            Task stored = taskDao.getTaskById(id);
+            if (stored == null) return false;
+            if (!stored.isInProgress()) {
+                // Started and stopped again within this update
+                taskDao.startTracking(id, stretch[0]);
+                stored.setStartTime(stretch[0]);
+            }
+            taskDao.stopTracking(id, stretch[1]);
+            sessions.addAll(TaskSession.split(id, stored.getStartTime(), stretch[1]));
+        }
+        Task stored = taskDao.getTaskById(id);
+        if (stored == null) return false;
+        if (stored.isInProgress() && !task.isInProgress()) {
+            // Stopped without a session to go by (e.g. requeued after a failed batch)
+            taskDao.stopTracking(id, task.getEndTime());
+            sessions.addAll(TaskSession.split(id, stored.getStartTime(), task.getEndTime()));
+            stored = taskDao.getTaskById(id);
+        } else if (!stored.isInProgress() && task.isInProgress()) {
+            taskDao.startTracking(id, task.getStartTime());
+            stored = taskDao.getTaskById(id);
+        }
+        database.taskSessionDao().insertSessions(sessions);
+        task.setInProgress(stored.isInProgress());
+        task.setStartTime(stored.getStartTime());
+        task.setEndTime(stored.getEndTime());
+        task.setTrackedMillis(stored.getTrackedMillis());
+        task.setActualDuration(stored.getActualDuration());
+        return true;
+    }
+
+    // [start, end] of each tracked stretch in sessions, rejoining the pieces TaskSession.split
+    // cut at midnight
+    private static List<long[]> stretches(List<TaskSession> sessions) {
+        List<long[]> stretches = new ArrayList<>();
+        for (TaskSession session : sessions) {
+            long[] last = stretches.isEmpty() ? null : stretches.get(stretches.size() - 1);
+            if (last != null && last[1] == session.getStartMillis()) {
+                last[1] = session.getEndMillis();
+            } else {
+                stretches.add(new long[]{session.getStartMillis(), session.getEndMillis()});
+            }
+        }
+        return stretches;
+    }
+
+    // Puts the index back to the tasks as they were before a batch that failed to write
+    private void rollBack(List<TaskMutationQueue.Mutation> batch) {
+        for (TaskMutationQueue.Mutation mutation : batch) {
+            if (mutation.getPrevious() != null) {
+                index.put(mutation.getPrevious());
+            } else {
+                // Not known; reload from the database on the next read
+                index.clear();
+            }
+        }
+        mutations.writeAllInFull();
+        index.putAll(mutations.pendingTasks());
     }
 
     // Delete task
     public void deleteTask(Task task, OnTaskDeletedCallback callback) {
-        executorService.execute(() -> {
-            taskDao.deleteTask(task);
-            refreshTodayTasks();
+        executors.write(() -> {
+            writeThrough(() -> {
+                taskDao.deleteTask(task);
+                index.remove(task.getId());
+                return null;
+            });
             if (callback != null) {
                 callback.onTaskDeleted();
             }
         });
     }
 
-    // Toggle immediate with validation
+    // ===== Bulk writes =====
+    // Each runs as one transaction of set-based statements, however many tasks are selected. The
+    // callback gets the number of tasks changed, on the write lane.
+
+    public void insertTasks(List<Task> tasks, OnTasksChangedCallback callback) {
+        executors.write(() -> {
+            int count = writeThrough(() -> {
+                List<Long> ids = taskDao.insertTasks(tasks);
+                for (int i = 0; i < tasks.size(); i++) {
+                    tasks.get(i).setId(ids.get(i).intValue());
+                }
+                index.putAll(tasks);
+                return tasks.size();
+            });
+            if (callback != null) {
+                callback.onTasksChanged(count);
+            }
+        });
+    }
+
+    // Completing also clears the immediate flag and stops tracking, like completing one task
+    public void completeTasks(TaskSelection selection, OnTasksChangedCallback callback) {
+        writeSelection(selection, ids -> {
+            stopTracking(ids);
+            return taskDao.completeTasks(ids);
+        }, callback);
+    }
+
+    // Moves the tasks onto the day starting at dayStart, each keeping its local time of day
+    public void rescheduleTasks(TaskSelection selection, long dayStart, OnTasksChangedCallback callback) {
+        writeSelection(selection, ids -> taskDao.rescheduleTasks(ids, dayStart), callback);
+    }
+
+    public void setPriority(TaskSelection selection, int priority, OnTasksChangedCallback callback) {
+        writeSelection(selection, ids -> taskDao.setPriority(ids, priority), callback);
+    }
+
+    public void deleteTasks(TaskSelection selection, OnTasksChangedCallback callback) {
+        writeSelection(selection, taskDao::deleteTasksById, callback);
+    }
+
+    private void writeSelection(TaskSelection selection, BulkWrite write, OnTasksChangedCallback callback) {
+        TaskSelection snapshot = selection.copy();
+        executors.write(() -> {
+            int count = writeThrough(() -> {
+                // Resolved in the transaction, so a filter selection covers exactly the rows written
+                List<Integer> ids = resolve(snapshot);
+                int changed = write.apply(ids);
+                reindex(ids);
+                return changed;
+            });
+            if (callback != null) {
+                callback.onTasksChanged(count);
+            }
+        });
+    }
+
+    private List<Integer> resolve(TaskSelection selection) {
+        if (!selection.isAllMatching()) {
+            return new ArrayList<>(selection.getIds());
+        }
+        List<Integer> matching = taskDao.getTaskIdsByFilter(TaskQueryBuilder.buildIds(selection.getFilter()));
+        List<Integer> ids = new ArrayList<>(matching.size());
+        for (Integer id : matching) {
+            if (!selection.getIds().contains(id)) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    // Stops tracking the tasks among ids that are running and logs their sessions; the
+    // set-based statements leave the tracking columns alone
+    private void stopTracking(List<Integer> ids) {
+        Set<Integer> selected = new HashSet<>(ids);
+        List<Task> stopped = new ArrayList<>();
+        List<TaskSession> sessions = new ArrayList<>();
+        long now = TrackingClock.get().now();
+        for (Task task : taskDao.getInProgressTasks()) {
+            if (selected.contains(task.getId())) {
+                task.stopTask(now);
+                sessions.addAll(task.takeFinishedSessions());
+                stopped.add(task);
+            }
+        }
+        if (!stopped.isEmpty()) {
+            taskDao.updateTasks(stopped);
+            database.taskSessionDao().insertSessions(sessions);
+        }
+    }
+
+    // Re-reads the rows a set-based write touched; deleted ones drop out of the index
+    private void reindex(List<Integer> ids) {
+        if (!index.isLoaded()) return;
+        for (Integer id : ids) {
+            index.remove(id);
+        }
+        index.putAll(taskDao.getTasksByIds(ids));
+        index.putAll(mutations.pendingTasks());
+    }
+
+    // Flips the task's star; starring is subject to the immediate-task limit
     public void toggleImmediate(Task task, OnImmediateToggleCallback callback) {
-        executorService.execute(() -> {
-            int currentCount = taskDao.getImmediateTaskCount();
-            boolean canToggle = !task.isImmediate() || currentCount < 5;
-
-            if (canToggle) {
-                task.setImmediate(!task.isImmediate());
-                taskDao.updateTask(task);
-                refreshTodayTasks();
+        executors.write(() -> {
+            boolean immediate = !task.isImmediate();
+            if (writeImmediate(task.getId(), immediate)) {
+                task.setImmediate(immediate);
                 callback.onToggleSuccess();
             } else {
                 callback.onToggleFailed("Maximum 5 immediate tasks allowed");
@@ -120,13 +455,12 @@ public class TaskRepository {
         });
     }
 
-    // Check immediate count before toggling
+    // Writes the star the caller already set on the task (TaskAdapter flips it before calling);
+    // starring is subject to the immediate-task limit
     public void checkAndToggleImmediate(Task task, OnImmediateToggleCallback callback) {
-        executorService.execute(() -> {
-            int currentCount = taskDao.getImmediateTaskCount();
-            if (task.isImmediate() || currentCount < 5) {
-                taskDao.updateTask(task);
-                refreshTodayTasks();
+        boolean immediate = task.isImmediate();
+        executors.write(() -> {
+            if (writeImmediate(task.getId(), immediate)) {
                 callback.onToggleSuccess();
             } else {
                 callback.onToggleFailed("Maximum 5 immediate tasks allowed");
@@ -134,24 +468,61 @@ public class TaskRepository {
         });
     }
 
+    // Write lane. The limit check and the write are one conditional UPDATE
+    // (TaskDao.markImmediateWithinLimit), so the limit holds whoever else writes.
+    private boolean writeImmediate(int id, boolean immediate) {
+        return writeThrough(() -> {
+            if (!taskDao.setImmediateWithinLimit(id, immediate, MAX_IMMEDIATE_TASKS)) {
+                return false;
+            }
+            Task indexed = index.get(id);
+            if (indexed != null) {
+                indexed.setImmediate(immediate);
+                index.put(indexed);
+            }
+            return true;
+        });
+    }
+
+    // Saves the running sessions (TrackingCheckpointer) and refreshes the tracked tasks in the
+    // index. Runs on the write lane; returns the number of tasks checkpointed.
+    public int checkpointTracking(long now) {
+        return writeThrough(() -> {
+            int checkpointed = new TrackingCheckpointer(database).checkpoint(now);
+            index.putAll(taskDao.getInProgressTasks());
+            // Updates queued since the flush above stay visible
+            index.putAll(mutations.pendingTasks());
+            return checkpointed;
+        });
+    }
+
     // Callbacks for async operations
     public interface OnTaskInsertedCallback {
         void onTaskInserted(Task task);
     }
 
+    public interface OnTaskUpdatedCallback {
+        void onTaskUpdated(Task task);
+        // Not written, or written without a star the immediate-task limit refused; the
+        // repository shows the task as it was saved
+        void onTaskUpdateFailed();
+    }
+
     public interface OnTaskDeletedCallback {
         void onTaskDeleted();
     }
 
+    public interface OnTasksChangedCallback {
+        void onTasksChanged(int count);
+    }
+
+    // A set-based write over resolved task ids, returning the number of rows changed
+    private interface BulkWrite {
+        int apply(List<Integer> ids);
+    }
+
     public interface OnImmediateToggleCallback {
         void onToggleSuccess();
         void onToggleFailed(String message);
     }
-
-    // Clean up resources
-    public void cleanup() {
-        if (executorService != null && !executorService.isShutdown()) {
-            executorService.shutdown();
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package com.tannazetm.dailytasktracker;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Tasks picked in the Home multi-select mode: either the ids tapped one by one, or every task
+// matching a filter except the ids tapped off since. The filter form is resolved to ids by
+// TaskRepository inside the bulk write, so "select all" never has to load the whole list.
+// Not thread-safe; hand copy() to the repository.
+public class TaskSelection {
+
+    private final Set<Integer> ids = new LinkedHashSet<>(); // selected, or excluded with a filter
+    private TaskFilter filter;
+
+    public TaskSelection() {
+    }
+
+    private TaskSelection(TaskSelection other) {
+        ids.addAll(other.ids);
+        filter = other.filter;
+    }
+
+    public TaskSelection copy() {
+        return new TaskSelection(this);
+    }
+
+    public boolean contains(int id) {
+        return filter != null ? !ids.contains(id) : ids.contains(id);
+    }
+
+    public void toggle(int id) {
+        if (!ids.remove(id)) {
+            ids.add(id);
+        }
+    }
+
+    // Selects every task matching the filter, including ones not loaded into the list
+    public void selectAll(TaskFilter filter) {
+        this.filter = filter;
+        ids.clear();
+    }
+
+    public void clear() {
+        filter = null;
+        ids.clear();
+    }
+
+    // True when nothing is selected; a filter selection may still resolve to no tasks
+    public boolean isEmpty() {
+        return filter == null && ids.isEmpty();
+    }
+
+    public boolean isAllMatching() {
+        return filter != null;
+    }
+
+    // Null unless selectAll() was used
+    public TaskFilter getFilter() {
+        return filter;
+    }
+
+    // The selected ids, or with a filter the excluded ones
+    public Set<Integer> getIds() {
+        return Collections.unmodifiableSet(ids);
+    }
+}
@@ -0,0 +1,34 @@
+package com.tannazetm.dailytasktracker;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import java.util.List;
+
+// Append-only log of tracking sessions (see TaskSession). Range queries use the covering
+// (startMillis, endMillis) index; sessions never cross midnight, so filtering on the start alone
+// is exact for day and week ranges from DayRange.
+@Dao
+public interface TaskSessionDao {
+
+    @Insert
+    void insertSessions(List<TaskSession> sessions);
+
+    // In the order they were tracked (ids are appended in time order)
+    @Query("SELECT * FROM task_sessions WHERE taskId = :taskId ORDER BY id")
+    List<TaskSession> getSessionsForTask(int taskId);
+
+    @Query("SELECT IFNULL(SUM(endMillis - startMillis), 0) FROM task_sessions WHERE taskId = :taskId")
+    long getTrackedMillisForTask(int taskId);
+
+    // Total tracked time in a range, e.g. DayRange.today() or DayRange.thisWeek()
+    @Query("SELECT IFNULL(SUM(endMillis - startMillis), 0) FROM task_sessions "
+            + "WHERE startMillis BETWEEN :startDate AND :endDate")
+    long getTrackedMillis(long startDate, long endDate);
+
+    // Tracked time per local day in a range; days without sessions are left out
+    @Query("SELECT CAST(strftime('%Y%m%d', startMillis / 1000, 'unixepoch', 'localtime') AS INTEGER) AS day, "
+            + "SUM(endMillis - startMillis) AS millis FROM task_sessions "
+            + "WHERE startMillis BETWEEN :startDate AND :endDate GROUP BY day ORDER BY day")
+    List<DailyTrackedTime> getDailyTrackedTime(long startDate, long endDate);
+}
@@ -0,0 +1,27 @@
+package com.tannazetm.dailytasktracker;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+// Materialized rollup of the tasks table, one row per (local due day, priority) plus an
+// all-time row per priority under day = ALL_DAYS. Maintained by the triggers in TaskStatsSchema,
+// so reads are a handful of primary-key rows no matter how many tasks there are.
+@Entity(tableName = "task_stats", primaryKeys = {"day", "priority"})
+public class TaskStats {
+
+    public static final int ALL_DAYS = 0;
+
+    public int day; // local due date as yyyyMMdd, or ALL_DAYS
+    public int priority;
+    public int taskCount;
+    public int completedCount;
+    // Tracked minutes, or the estimate for completed tasks that were never tracked
+    public int minutes;
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "day=" + day + " priority=" + priority + " tasks=" + taskCount
+                + " completed=" + completedCount + " minutes=" + minutes;
+    }
+}
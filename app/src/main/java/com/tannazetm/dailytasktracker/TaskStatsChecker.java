@@ -0,0 +1,107 @@
+package com.tannazetm.dailytasktracker;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+// Verifies the trigger-maintained task_stats rows against a from-scratch recomputation and
+// rebuilds them when they differ. Besides catching trigger bugs this repairs day keys after a
+// time zone change, since triggers bucket tasks by the local day at write time. The check scans
+// every task, so it only runs when drift is likely (see verifyIfDue).
+public final class TaskStatsChecker {
+
+    private static final String TAG = "TaskStatsChecker";
+    private static final String PREFS_NAME = "task_stats_check";
+    private static final String KEY_TIME_ZONE = "time_zone";
+    private static final String KEY_SCHEMA_VERSION = "schema_version";
+    private static final String KEY_CHECKED_AT = "checked_at";
+    // Catches trigger bugs eventually even when nothing else suggests drift
+    private static final long CHECK_INTERVAL_MS = TimeUnit.DAYS.toMillis(7);
+
+    private TaskStatsChecker() {
+    }
+
+    // Human-readable differences between stored and recomputed rows; empty when consistent
+    public static List<String> findMismatches(TaskDatabase database) {
+        List<TaskStats> stored = new ArrayList<>();
+        List<TaskStats> expected = new ArrayList<>();
+        for (TaskStatsDao.CheckedStats row : database.taskStatsDao().getStatsToCheck()) {
+            (row.stored ? stored : expected).add(row);
+        }
+        return diff(stored, expected);
+    }
+
+    // Returns the mismatches that were found (and repaired)
+    public static List<String> checkAndRepair(TaskDatabase database) {
+        List<String> mismatches = findMismatches(database);
+        if (!mismatches.isEmpty()) {
+            database.runInTransaction(() ->
+                    TaskStatsSchema.rebuild(database.getOpenHelper().getWritableDatabase()));
+        }
+        return mismatches;
+    }
+
+    // Startup check, run only when the time zone or the schema version changed since the last
+    // one (day keys use 'localtime'; a migration may have rebuilt tables or triggers), or every
+    // CHECK_INTERVAL_MS otherwise. Scans on the read lane at analytics priority and only takes
+    // the write lane when there is something to repair.
+    public static void verifyIfDue(Context context, TaskDatabase database, DatabaseExecutors executors) {
+        SharedPreferences prefs = context.getApplicationContext()
+                .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        executors.read(DatabaseExecutors.Priority.ANALYTICS, () -> {
+            String timeZone = TimeZone.getDefault().getID();
+            // Opens (and migrates) the database, so read it here rather than on the main thread
+            int schemaVersion = database.getOpenHelper().getReadableDatabase().getVersion();
+            long now = System.currentTimeMillis();
+            boolean due = !timeZone.equals(prefs.getString(KEY_TIME_ZONE, null))
+                    || schemaVersion != prefs.getInt(KEY_SCHEMA_VERSION, -1)
+                    || Math.abs(now - prefs.getLong(KEY_CHECKED_AT, 0)) >= CHECK_INTERVAL_MS;
+            if (!due) return;
+
+            List<String> mismatches = findMismatches(database);
+            if (!mismatches.isEmpty()) {
+                Log.w(TAG, "Rebuilding task_stats, " + mismatches.size() + " rows differ: " + mismatches.get(0));
+                executors.write(() -> database.runInTransaction(() ->
+                        TaskStatsSchema.rebuild(database.getOpenHelper().getWritableDatabase())));
+            }
+            prefs.edit()
+                    .putString(KEY_TIME_ZONE, timeZone)
+                    .putInt(KEY_SCHEMA_VERSION, schemaVersion)
+                    .putLong(KEY_CHECKED_AT, now)
+                    .apply();
+        });
+    }
+
+    static List<String> diff(List<TaskStats> stored, List<TaskStats> expected) {
+        Map<String, TaskStats> storedByKey = byKey(stored);
+        List<String> mismatches = new ArrayList<>();
+        for (TaskStats want : expected) {
+            TaskStats have = storedByKey.remove(want.day + ":" + want.priority);
+            if (have == null) {
+                mismatches.add("missing: " + want);
+            } else if (have.taskCount != want.taskCount || have.completedCount != want.completedCount
+                    || have.minutes != want.minutes) {
+                mismatches.add("stored " + have + ", expected " + want);
+            }
+        }
+        for (TaskStats extra : storedByKey.values()) {
+            mismatches.add("unexpected: " + extra);
+        }
+        return mismatches;
+    }
+
+    private static Map<String, TaskStats> byKey(List<TaskStats> rows) {
+        Map<String, TaskStats> map = new LinkedHashMap<>();
+        for (TaskStats row : rows) {
+            map.put(row.day + ":" + row.priority, row);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,48 @@
+package com.tannazetm.dailytasktracker;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import java.util.List;
+
+// Statistics for the Dashboard and Notifications tabs. Reads come from the task_stats rollup
+// (see TaskStats / TaskStatsSchema), so each one touches a few primary-key rows regardless of
+// how many tasks exist.
+@Dao
+public interface TaskStatsDao {
+
+    // All-time counts and time per priority
+    @Query("SELECT priority, taskCount, completedCount, minutes FROM task_stats "
+            + "WHERE day = 0 ORDER BY priority")
+    List<PriorityStats> getPriorityStats();
+
+    // All-time totals across priorities (priority is 0 in the result)
+    @Query("SELECT 0 AS priority, IFNULL(SUM(taskCount), 0) AS taskCount, "
+            + "IFNULL(SUM(completedCount), 0) AS completedCount, IFNULL(SUM(minutes), 0) AS minutes "
+            + "FROM task_stats WHERE day = 0")
+    PriorityStats getTotals();
+
+    // ===== Consistency checking (TaskStatsChecker) =====
+
+    // The stored rows (stored = 1) and what task_stats should contain, recomputed from tasks with
+    // a full scan (stored = 0). One statement, so both sides come from the same snapshot without
+    // holding a transaction (and the write lock) open across two reads.
+    @Query("SELECT 1 AS stored, day, priority, taskCount, completedCount, minutes FROM task_stats "
+            + "UNION ALL "
+            + "SELECT 0 AS stored, "
+            + "CAST(strftime('%Y%m%d', dueTimestamp / 1000, 'unixepoch', 'localtime') AS INTEGER) AS day, "
+            + "priority, COUNT(*) AS taskCount, SUM(isCompleted) AS completedCount, "
+            + "SUM(CASE WHEN actualDuration > 0 THEN actualDuration "
+            + "WHEN isCompleted = 1 THEN estimatedDuration ELSE 0 END) AS minutes "
+            + "FROM tasks GROUP BY day, priority "
+            + "UNION ALL "
+            + "SELECT 0 AS stored, 0 AS day, priority, COUNT(*) AS taskCount, SUM(isCompleted) AS completedCount, "
+            + "SUM(CASE WHEN actualDuration > 0 THEN actualDuration "
+            + "WHEN isCompleted = 1 THEN estimatedDuration ELSE 0 END) AS minutes "
+            + "FROM tasks GROUP BY priority")
+    List<CheckedStats> getStatsToCheck();
+
+    // A row of getStatsToCheck
+    class CheckedStats extends TaskStats {
+        public boolean stored;
+    }
+}
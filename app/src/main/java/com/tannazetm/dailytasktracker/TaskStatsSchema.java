@@ -0,0 +1,78 @@
+package com.tannazetm.dailytasktracker;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+// Triggers that keep task_stats in step with tasks, and the from-scratch rebuild used by the
+// migration and by TaskStatsChecker. Each task contributes to its day row and to the ALL_DAYS row
+// of its priority; an update removes the old contribution and adds the new one. The day key is
+// computed by SQLite ('localtime'), the same expression TaskStatsDao.getStatsToCheck() uses.
+public final class TaskStatsSchema {
+
+    static final String DAY_KEY = "CAST(strftime('%%Y%%m%%d', %s.dueTimestamp / 1000, 'unixepoch', 'localtime') AS INTEGER)";
+    static final String MINUTES = "(CASE WHEN %1$s.actualDuration > 0 THEN %1$s.actualDuration "
+            + "WHEN %1$s.isCompleted = 1 THEN %1$s.estimatedDuration ELSE 0 END)";
+
+    // Only these columns feed the rollup; other updates (title, startTime, ...) skip the trigger
+    private static final String TRACKED_COLUMNS = "dueTimestamp, priority, isCompleted, actualDuration, estimatedDuration";
+
+    private TaskStatsSchema() {
+    }
+
+    public static void createTriggers(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS task_stats_after_insert AFTER INSERT ON tasks BEGIN "
+                + add("NEW") + "END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS task_stats_after_delete AFTER DELETE ON tasks BEGIN "
+                + remove("OLD") + "END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS task_stats_after_update AFTER UPDATE OF " + TRACKED_COLUMNS
+                + " ON tasks BEGIN " + remove("OLD") + add("NEW") + "END");
+    }
+
+    // Replaces every task_stats row with values computed from tasks (run inside a transaction)
+    public static void rebuild(SupportSQLiteDatabase db) {
+        db.execSQL("DELETE FROM task_stats");
+        db.execSQL("INSERT INTO task_stats (day, priority, taskCount, completedCount, minutes) "
+                + aggregateSelect(dayKey("tasks")) + " GROUP BY 1, 2");
+        db.execSQL("INSERT INTO task_stats (day, priority, taskCount, completedCount, minutes) "
+                + aggregateSelect(String.valueOf(TaskStats.ALL_DAYS)) + " GROUP BY 2");
+    }
+
+    static String dayKey(String row) {
+        return String.format(DAY_KEY, row);
+    }
+
+    private static String minutes(String row) {
+        return String.format(MINUTES, row);
+    }
+
+    private static String aggregateSelect(String dayExpression) {
+        return "SELECT " + dayExpression + ", priority, COUNT(*), SUM(isCompleted), SUM("
+                + minutes("tasks") + ") FROM tasks";
+    }
+
+    private static String add(String row) {
+        return apply(row, dayKey(row), "+") + apply(row, String.valueOf(TaskStats.ALL_DAYS), "+");
+    }
+
+    private static String remove(String row) {
+        return apply(row, dayKey(row), "-") + apply(row, String.valueOf(TaskStats.ALL_DAYS), "-");
+    }
+
+    // No UPSERT before SQLite 3.24 (API 30), so adding makes sure the row exists first, and
+    // removing drops rows that no longer count any task
+    private static String apply(String row, String day, String sign) {
+        String where = " WHERE day = " + day + " AND priority = " + row + ".priority; ";
+        StringBuilder sql = new StringBuilder();
+        if (sign.equals("+")) {
+            sql.append("INSERT OR IGNORE INTO task_stats (day, priority, taskCount, completedCount, minutes) VALUES (")
+                    .append(day).append(", ").append(row).append(".priority, 0, 0, 0); ");
+        }
+        sql.append("UPDATE task_stats SET taskCount = taskCount ").append(sign).append(" 1, ")
+                .append("completedCount = completedCount ").append(sign).append(' ').append(row).append(".isCompleted, ")
+                .append("minutes = minutes ").append(sign).append(' ').append(minutes(row))
+                .append(where);
+        if (sign.equals("-")) {
+            sql.append("DELETE FROM task_stats").append(where.replace(";", " AND taskCount = 0;"));
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package com.tannazetm.dailytasktracker;
+
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+
+// Per-process setup that has to happen before any activity or service runs: TrackingService can
+// be restarted on its own (START_STICKY) and reads the tracking clock right away.
+public class TaskTrackerApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        BootClock.install(this);
+    }
+
+    // In the background the task index is just memory; it reloads on the next read
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            TaskRepository.getInstance(this).invalidateCache();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.tannazetm.dailytasktracker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Persists the time of all running sessions in one transaction: logs each session so far to
+// task_sessions and folds it into the task totals, leaving the tasks tracking from `now`. Used by
+// TrackingService on its checkpoint interval (through TaskRepository.checkpointTracking), so the
+// Dashboard and stats see tracked time while tracking is still going instead of only after stop.
+public class TrackingCheckpointer {
+
+    private final TaskDatabase database;
+
+    public TrackingCheckpointer(TaskDatabase database) {
+        this.database = database;
+    }
+
+    // Runs on the write lane; returns the number of tasks checkpointed
+    public int checkpoint(long now) {
+        return database.runInTransaction(() -> {
+            List<TaskSession> sessions = new ArrayList<>();
+            for (Task task : database.taskDao().getInProgressTasks()) {
+                if (task.getStartTime() < now) {
+                    sessions.addAll(TaskSession.split(task.getId(), task.getStartTime(), now));
+                }
+            }
+            database.taskSessionDao().insertSessions(sessions);
+            return database.taskDao().checkpointInProgressTasks(now);
+        });
+    }
+}
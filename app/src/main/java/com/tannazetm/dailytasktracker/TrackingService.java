@@ -0,0 +1,206 @@
+package com.tannazetm.dailytasktracker;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ServiceInfo;
+import android.os.Build;
+import android.os.Handler;
+import android.os.IBinder;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.ServiceCompat;
+import androidx.core.content.ContextCompat;
+
+import java.util.Collections;
+import java.util.List;
+
+// Foreground service that owns the running tracking sessions while any task is in progress,
+// whether or not the Home tab is visible. It keeps an ongoing notification (the system renders
+// the running time with a chronometer, so nothing is posted per second), checkpoints all
+// sessions to Room in one transaction per interval (TaskRepository.checkpointTracking) instead of
+// on every tick, and stops itself once no task is tracking. Screens draw live timers from
+// TrackingTicker.
+public class TrackingService extends Service {
+
+    // Optional checkpoint interval in milliseconds for the start intent
+    public static final String EXTRA_CHECKPOINT_INTERVAL = "checkpoint_interval";
+    public static final long DEFAULT_CHECKPOINT_INTERVAL_MS = 60 * 1000;
+
+    static final String CHANNEL_ID = "tracking";
+    static final int NOTIFICATION_ID = 1001;
+
+    private static final String[] TASKS_TABLE = {"tasks"};
+
+    private TaskDatabase database;
+    private DatabaseExecutors executors;
+    private TaskRepository repository;
+    private CoalescingInvalidationObserver tasksObserver;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    private long checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL_MS;
+    private List<Task> trackedTasks = Collections.emptyList(); // main thread only
+
+    private final Runnable checkpointRunnable = new Runnable() {
+        @Override
+        public void run() {
+            checkpointNow();
+            handler.postDelayed(this, checkpointInterval);
+        }
+    };
+
+    // Starts the service, or just makes a running one re-read the in-progress tasks
+    public static void start(Context context) {
+        start(context, DEFAULT_CHECKPOINT_INTERVAL_MS);
+    }
+
+    public static void start(Context context, long checkpointIntervalMillis) {
+        Intent intent = new Intent(context, TrackingService.class)
+                .putExtra(EXTRA_CHECKPOINT_INTERVAL, checkpointIntervalMillis);
+        ContextCompat.startForegroundService(context.getApplicationContext(), intent);
+    }
+
+    // At app start: bring the notification back for tasks that were left tracking
+    public static void startIfTracking(Context context) {
+        Context appContext = context.getApplicationContext();
+        DatabaseExecutors.getInstance().read(DatabaseExecutors.Priority.ANALYTICS, () -> {
+            if (TaskDatabase.getDatabase(appContext).taskDao().getInProgressCount() > 0) {
+                start(appContext);
+            }
+        });
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        database = TaskDatabase.getDatabase(this);
+        executors = DatabaseExecutors.getInstance();
+        repository = TaskRepository.getInstance(this);
+        createChannel(this);
+        // Must be in the foreground within seconds of startForegroundService, before the
+        // in-progress tasks are known
+        goForeground(buildNotification(this, trackedTasks, System.currentTimeMillis()));
+
+        // Tracking started or stopped anywhere in the app shows up as a tasks invalidation
+        tasksObserver = new CoalescingInvalidationObserver(TASKS_TABLE, executors,
+                DatabaseExecutors.Priority.UI, CoalescingInvalidationObserver.DEFAULT_WINDOW_MS,
+                this::loadTrackedTasks);
+        CoalescingInvalidationObserver observer = tasksObserver;
+        executors.read(DatabaseExecutors.Priority.UI,
+                () -> database.getInvalidationTracker().addObserver(observer));
+    }
+
+    @Override
+    public int onStartCommand(@Nullable Intent intent, int flags, int startId) {
+        // Null intent: restarted after the process was killed; the sessions' startTime is in Room
+        if (intent != null) {
+            checkpointInterval = Math.max(1000,
+                    intent.getLongExtra(EXTRA_CHECKPOINT_INTERVAL, DEFAULT_CHECKPOINT_INTERVAL_MS));
+        }
+        handler.removeCallbacks(checkpointRunnable);
+        handler.postDelayed(checkpointRunnable, checkpointInterval);
+        executors.read(DatabaseExecutors.Priority.UI, this::loadTrackedTasks);
+        return START_STICKY;
+    }
+
+    // Read lane
+    private void loadTrackedTasks() {
+        List<Task> tasks = database.taskDao().getInProgressTasks();
+        handler.post(() -> onTrackedTasksChanged(tasks));
+    }
+
+    private void onTrackedTasksChanged(List<Task> tasks) {
+        trackedTasks = tasks;
+        if (tasks.isEmpty()) {
+            // The last session was stopped (and saved) by whoever stopped it
+            handler.removeCallbacks(checkpointRunnable);
+            ServiceCompat.stopForeground(this, ServiceCompat.STOP_FOREGROUND_REMOVE);
+            stopSelf();
+            return;
+        }
+        NotificationManager manager = (NotificationManager) getSystemService(NOTIFICATION_SERVICE);
+        manager.notify(NOTIFICATION_ID, buildNotification(this, tasks, System.currentTimeMillis()));
+    }
+
+    private void checkpointNow() {
+        if (!trackedTasks.isEmpty()) {
+            executors.write(() -> repository.checkpointTracking(TrackingClock.get().now()));
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        handler.removeCallbacksAndMessages(null);
+        // Stopped by the system while tracking: save what has run so far
+        checkpointNow();
+        CoalescingInvalidationObserver observer = tasksObserver;
+        executors.read(DatabaseExecutors.Priority.UI,
+                () -> database.getInvalidationTracker().removeObserver(observer));
+        super.onDestroy();
+    }
+
+    @Nullable
+    @Override
+    public IBinder onBind(Intent intent) {
+        return null;
+    }
+
+    private void goForeground(Notification notification) {
+        int type = Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE
+                ? ServiceInfo.FOREGROUND_SERVICE_TYPE_SPECIAL_USE : 0;
+        ServiceCompat.startForeground(this, NOTIFICATION_ID, notification, type);
+    }
+
+    static void createChannel(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(CHANNEL_ID,
+                    context.getString(R.string.tracking_channel_name), NotificationManager.IMPORTANCE_LOW);
+            channel.setShowBadge(false);
+            context.getSystemService(NotificationManager.class).createNotificationChannel(channel);
+        }
+    }
+
+    // wallNow is System.currentTimeMillis(), the scale the notification chronometer counts on
+    static Notification buildNotification(Context context, List<Task> tasks, long wallNow) {
+        Intent open = new Intent(context, MainActivity.class)
+                .setFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        PendingIntent contentIntent = PendingIntent.getActivity(context, 0, open,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_clock)
+                .setContentIntent(contentIntent)
+                .setOngoing(true)
+                .setOnlyAlertOnce(true)
+                .setCategory(NotificationCompat.CATEGORY_STOPWATCH)
+                .setForegroundServiceBehavior(NotificationCompat.FOREGROUND_SERVICE_IMMEDIATE);
+
+        if (tasks.isEmpty()) {
+            return builder.setContentTitle(context.getString(R.string.tracking_notification_starting)).build();
+        }
+
+        // The chronometer shows the first task's total tracked time and is counted by the system
+        Task first = tasks.get(0);
+        long tracked = first.getTrackedMillis() + first.getCurrentSessionMillis(TrackingClock.get().now());
+        builder.setUsesChronometer(true)
+                .setShowWhen(true)
+                .setWhen(wallNow - tracked);
+
+        if (tasks.size() == 1) {
+            builder.setContentTitle(first.getTitle())
+                    .setContentText(context.getString(R.string.tracking_notification_single,
+                            first.getEstimatedDuration()));
+        } else {
+            builder.setContentTitle(context.getResources().getQuantityString(
+                            R.plurals.tracking_notification_count, tasks.size(), tasks.size()))
+                    .setContentText(first.getTitle());
+        }
+        return builder.build();
+    }
+}
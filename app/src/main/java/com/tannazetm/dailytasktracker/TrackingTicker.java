@@ -0,0 +1,52 @@
+package com.tannazetm.dailytasktracker;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+
+// The one 1-second tick for live tracking views, shared by every screen that shows running
+// timers. Emits TrackingClock.now() on the main thread, aligned to whole seconds, and only while
+// at least one observer is active, so nothing ticks when no tracking UI is visible.
+public class TrackingTicker extends LiveData<Long> {
+
+    public static final long TICK_INTERVAL_MS = 1000;
+
+    private static volatile TrackingTicker instance;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable tick = new Runnable() {
+        @Override
+        public void run() {
+            long now = TrackingClock.get().now();
+            setValue(now);
+            // Next whole second, so all rows and the notification change together
+            handler.postDelayed(this, TICK_INTERVAL_MS - now % TICK_INTERVAL_MS);
+        }
+    };
+
+    private TrackingTicker() {
+    }
+
+    public static TrackingTicker getInstance() {
+        if (instance == null) {
+            synchronized (TrackingTicker.class) {
+                if (instance == null) {
+                    instance = new TrackingTicker();
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    protected void onActive() {
+        long now = TrackingClock.get().now();
+        handler.postDelayed(tick, TICK_INTERVAL_MS - now % TICK_INTERVAL_MS);
+    }
+
+    @Override
+    protected void onInactive() {
+        handler.removeCallbacks(tick);
+    }
+}
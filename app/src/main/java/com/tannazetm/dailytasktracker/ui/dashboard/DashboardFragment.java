@@ -11,15 +11,14 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
 
+import com.tannazetm.dailytasktracker.DatabaseExecutors;
+import com.tannazetm.dailytasktracker.PriorityStats;
 import com.tannazetm.dailytasktracker.R;
-import com.tannazetm.dailytasktracker.Task;
 import com.tannazetm.dailytasktracker.TaskDatabase;
+import com.tannazetm.dailytasktracker.TaskStatsCalculator;
+import com.tannazetm.dailytasktracker.TaskTextFormatter;
 
-import java.util.Calendar;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.Executors;
 
 public class DashboardFragment extends Fragment {
 
@@ -53,71 +52,31 @@ public class DashboardFragment extends Fragment {
     }
 
     private void loadStatistics() {
-        Executors.newSingleThreadExecutor().execute(() -> {
-            // Get all tasks from database
-            List<Task> allTasks = database.taskDao().getAllTasks();
+        // Statistics can wait behind list reads; dropped if the view is destroyed first
+        DatabaseExecutors.getInstance().read(getViewLifecycleOwner(), DatabaseExecutors.Priority.ANALYTICS, () -> {
+            // Aggregated in SQLite: one row per priority, however many tasks there are
+            List<PriorityStats> stats = database.taskStatsDao().getPriorityStats();
+            TaskStatsCalculator.Summary summary = TaskStatsCalculator.summarize(stats);
 
-            // Calculate statistics
-            int totalTasks = allTasks.size();
-            int completedTasks = 0;
-            int totalMinutesSpent = 0;
-
-            // Time distribution by priority
-            Map<Integer, Integer> priorityTimeMap = new HashMap<>();
-            priorityTimeMap.put(1, 0); // Low
-            priorityTimeMap.put(2, 0); // Medium
-            priorityTimeMap.put(3, 0); // High
-
-            for (Task task : allTasks) {
-                if (task.isCompleted()) {
-                    completedTasks++;
-                }
-
-                // Add actual duration if tracked, otherwise estimated for completed tasks
-                int taskTime = 0;
-                if (task.getActualDuration() > 0) {
-                    taskTime = task.getActualDuration();
-                    totalMinutesSpent += taskTime;
-                } else if (task.isCompleted()) {
-                    taskTime = task.getEstimatedDuration();
-                    totalMinutesSpent += taskTime;
-                }
-
-                // Track time by priority
-                if (taskTime > 0) {
-                    int priority = task.getPriority();
-                    priorityTimeMap.put(priority, priorityTimeMap.get(priority) + taskTime);
-                }
-            }
-
-            // Calculate completion percentage
-            int progressPercentage = totalTasks > 0 ? (completedTasks * 100) / totalTasks : 0;
-
-            // Format time spent
-            String timeSpentFormatted = formatDuration(totalMinutesSpent);
-
-            // Prepare chart data
-            int lowPriorityTime = priorityTimeMap.get(1);
-            int mediumPriorityTime = priorityTimeMap.get(2);
-            int highPriorityTime = priorityTimeMap.get(3);
+            int progressPercentage = summary.getProgressPercent();
+            String timeSpentFormatted = TaskTextFormatter.formatDurationShort(summary.getMinutes());
 
             // Update UI on main thread
-            int finalCompletedTasks = completedTasks;
             if (getActivity() != null) {
                 getActivity().runOnUiThread(() -> {
                     // Update all the views
                     progressPercent.setText(progressPercentage + "%");
-                    totalTasksCount.setText(String.valueOf(totalTasks));
-                    completedTasksCount.setText(String.valueOf(finalCompletedTasks));
+                    totalTasksCount.setText(String.valueOf(summary.getTaskCount()));
+                    completedTasksCount.setText(String.valueOf(summary.getCompletedCount()));
                     totalTimeSpent.setText(timeSpentFormatted);
                     circularProgress.setProgress(progressPercentage);
 
                     // ISSUE #3 FIX: Update time distribution chart
                     if (timeChart != null) {
                         timeChart.setData(
-                                lowPriorityTime,
-                                mediumPriorityTime,
-                                highPriorityTime
+                                summary.getPriorityMinutes(1),
+                                summary.getPriorityMinutes(2),
+                                summary.getPriorityMinutes(3)
                         );
                     }
                 });
@@ -125,21 +84,6 @@ public class DashboardFragment extends Fragment {
         });
     }
 
-    private String formatDuration(int minutes) {
-        if (minutes == 0) return "0m";
-        if (minutes < 60) {
-            return minutes + "m";
-        } else {
-            int hours = minutes / 60;
-            int mins = minutes % 60;
-            if (mins == 0) {
-                return hours + "h";
-            } else {
-                return hours + "h " + mins + "m";
-            }
-        }
-    }
-
     @Override
     public void onResume() {
         super.onResume();
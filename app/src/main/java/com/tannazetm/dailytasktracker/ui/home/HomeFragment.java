@@ -6,7 +6,11 @@ import android.app.TimePickerDialog;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageButton;
@@ -16,9 +20,13 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.view.ActionMode;
 import androidx.cardview.widget.CardView;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.LoadState;
 import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -28,19 +36,26 @@ import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.datepicker.MaterialDatePicker;
 import com.google.android.material.floatingactionbutton.ExtendedFloatingActionButton;
 import com.google.android.material.textfield.TextInputEditText;
+import com.tannazetm.dailytasktracker.DayRange;
 import com.tannazetm.dailytasktracker.R;
 import com.tannazetm.dailytasktracker.Task;
 import com.tannazetm.dailytasktracker.TaskAdapter;
+import com.tannazetm.dailytasktracker.TaskPagingAdapter;
+import com.tannazetm.dailytasktracker.TaskSelection;
+import com.tannazetm.dailytasktracker.TrackingTicker;
 
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
 
+import kotlin.Unit;
+
 public class HomeFragment extends Fragment implements TaskAdapter.OnTaskInteractionListener {
 
     private RecyclerView recyclerView;
     private TaskAdapter adapter;
+    private TaskPagingAdapter pagingAdapter; // used for "All Tasks", see applyListMode()
     private ExtendedFloatingActionButton addTaskFab;
     private TextView dateText, immediateCount, completedCount, activeFilterText;
     private HomeViewModel viewModel;
@@ -53,14 +68,17 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskInteract
     private ChipGroup dateFilterChipGroup, statusFilterChipGroup, priorityFilterChipGroup;
     private View clearFiltersButton;
     private LinearLayout emptyStateLayout;
+    private TextInputEditText searchInput;
 
     // Filter state
     private boolean filtersVisible = false;
 
-    // Handler for real-time tracking updates
-    private Handler trackingUpdateHandler;
-    private Runnable trackingUpdateRunnable;
-    private static final int TRACKING_UPDATE_INTERVAL = 1000; // 1 second
+    // Real-time tracking updates from the shared TrackingTicker
+    private Observer<Long> trackingTickObserver;
+    private boolean trackingTicking = false;
+
+    // Multi-select action bar; the selection itself lives in the view model
+    private ActionMode selectionMode;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater,
@@ -69,7 +87,6 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskInteract
 
         // Initialize handlers
         mainHandler = new Handler(Looper.getMainLooper());
-        trackingUpdateHandler = new Handler(Looper.getMainLooper());
 
         // Initialize ViewModel
         viewModel = new ViewModelProvider(this).get(HomeViewModel.class);
@@ -82,6 +99,11 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskInteract
         setupTrackingUpdates();
         updateDate();
 
+        // Back in multi-select after a configuration change
+        if (viewModel.getSelection() != null) {
+            startSelectionMode();
+        }
+
         addTaskFab.setOnClickListener(v -> showEnhancedAddTaskDialog());
 
         return root;
@@ -95,6 +117,7 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskInteract
         completedCount = root.findViewById(R.id.completedCount);
         activeFilterText = root.findViewById(R.id.activeFilterText);
         emptyStateLayout = root.findViewById(R.id.emptyStateLayout);
+        searchInput = root.findViewById(R.id.searchInput);
 
         // Filter components
         filterToggleButton = root.findViewById(R.id.filterToggleButton);
@@ -107,8 +130,19 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskInteract
 
     private void setupRecyclerView() {
         adapter = new TaskAdapter(getContext(), this);
+        pagingAdapter = new TaskPagingAdapter(getContext(), this);
+        pagingAdapter.addLoadStateListener(loadStates -> {
+            if (viewModel.isPagedMode() && loadStates.getRefresh() instanceof LoadState.NotLoading) {
+                updateEmptyState(pagingAdapter.getItemCount() == 0);
+            }
+            return Unit.INSTANCE;
+        });
+        pagingAdapter.addOnPagesUpdatedListener(() -> {
+            updateTrackingTicks();
+            return Unit.INSTANCE;
+        });
         recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
-        recyclerView.setAdapter(adapter);
+        applyListMode();
         recyclerView.setHasFixedSize(true);
         recyclerView.setItemViewCacheSize(20);
         recyclerView.setDrawingCacheEnabled(true);
@@ -116,6 +150,26 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskInteract
     }
 
     private void setupFilterListeners() {
+        // Search; the view model debounces keystrokes and cancels superseded queries
+        searchInput.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                boolean wasSearching = viewModel.isSearching();
+                viewModel.setSearchText(s.toString());
+                if (viewModel.isSearching() != wasSearching) {
+                    applyListMode();
+                }
+            }
+        });
+
         // Toggle filters visibility
         filterToggleButton.setOnClickListener(v -> toggleFilters());
 
@@ -132,6 +186,7 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskInteract
             } else if (checkedId == R.id.chipCustomDate) {
                 showCustomDatePicker();
             }
+            applyListMode();
             updateActiveFilterText();
         });
 
@@ -188,6 +243,7 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskInteract
 
         datePicker.addOnPositiveButtonClickListener(selection -> {
             viewModel.setCustomDateFilter(selection);
+            applyListMode();
             updateActiveFilterText();
         });
 
@@ -199,6 +255,7 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskInteract
         statusFilterChipGroup.check(R.id.chipAllStatus);
         priorityFilterChipGroup.check(R.id.chipAllPriority);
         viewModel.clearFilters();
+        applyListMode();
         updateActiveFilterText();
         showToast("Filters cleared");
     }
@@ -213,22 +270,60 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskInteract
         }
     }
 
+    // "All Tasks" can be the whole table, so it is shown through the paged adapter;
+    // date-bounded filters keep the plain list adapter.
+    private void applyListMode() {
+        RecyclerView.Adapter<?> wanted = viewModel.isPagedMode() ? pagingAdapter : adapter;
+        if (recyclerView.getAdapter() != wanted) {
+            recyclerView.setAdapter(wanted);
+            updateTrackingTicks();
+        }
+    }
+
+    private void updateEmptyState(boolean empty) {
+        if (empty) {
+            emptyStateLayout.setVisibility(View.VISIBLE);
+            recyclerView.setVisibility(View.GONE);
+        } else {
+            emptyStateLayout.setVisibility(View.GONE);
+            recyclerView.setVisibility(View.VISIBLE);
+            recyclerView.scrollToPosition(0);
+        }
+    }
+
+    private Task getTaskAt(int position) {
+        return viewModel.isPagedMode() ? pagingAdapter.getTaskAt(position) : adapter.getTaskAt(position);
+    }
+
     private void setupObservers() {
         // Observe tasks - automatic UI updates
         viewModel.getFilteredTasks().observe(getViewLifecycleOwner(), tasks -> {
-            adapter.setTasks(tasks);
+            // The list adapter shows search results instead while a search is active
+            if (viewModel.isSearching()) {
+                return;
+            }
+            // Diffed in the background; tracking state is checked once the new list is applied
+            adapter.submitList(tasks, this::updateTrackingTicks);
 
             // Show/hide empty state
-            if (tasks.isEmpty()) {
-                emptyStateLayout.setVisibility(View.VISIBLE);
-                recyclerView.setVisibility(View.GONE);
-            } else {
-                emptyStateLayout.setVisibility(View.GONE);
-                recyclerView.setVisibility(View.VISIBLE);
-                recyclerView.scrollToPosition(0);
+            if (!viewModel.isPagedMode()) {
+                updateEmptyState(tasks.isEmpty());
             }
         });
 
+        viewModel.getSearchResults().observe(getViewLifecycleOwner(), tasks -> {
+            if (!viewModel.isSearching()) {
+                return;
+            }
+            adapter.submitList(tasks, this::updateTrackingTicks);
+            updateEmptyState(tasks.isEmpty());
+        });
+
+        // Paged tasks for "All Tasks"
+        viewModel.getPagedTasks().observe(getViewLifecycleOwner(), pagingData ->
+                pagingAdapter.submitData(getViewLifecycleOwner().getLifecycle(), pagingData)
+        );
+
         // Observe counters
         viewModel.getImmediateCount().observe(getViewLifecycleOwner(), count ->
                 immediateCount.setText(count + "/5")
@@ -261,30 +356,41 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskInteract
 
     // ISSUE #2 FIX: Setup real-time tracking updates
     private void setupTrackingUpdates() {
-        trackingUpdateRunnable = new Runnable() {
-            @Override
-            public void run() {
-                // Notify adapter to refresh items that are in progress
-                adapter.notifyDataSetChanged();
-
-                // Schedule next update
-                trackingUpdateHandler.postDelayed(this, TRACKING_UPDATE_INTERVAL);
+        trackingTickObserver = now -> {
+            // Rebind only the tracking views of in-progress rows (TICK payload)
+            if (!notifyTrackingTick()) {
+                // Nothing is tracking any more; the next list update subscribes again
+                stopTrackingTicks();
             }
         };
     }
 
-    @Override
-    public void onResume() {
-        super.onResume();
-        // Start tracking updates when fragment is visible
-        trackingUpdateHandler.postDelayed(trackingUpdateRunnable, TRACKING_UPDATE_INTERVAL);
+    // Subscribed only while some listed task is being tracked; the ticker itself only runs
+    // while the view is started, so a hidden tab costs nothing
+    private void updateTrackingTicks() {
+        if (getView() == null) {
+            return;
+        }
+        boolean shouldTick = hasTrackingTasks();
+        if (shouldTick && !trackingTicking) {
+            trackingTicking = true;
+            TrackingTicker.getInstance().observe(getViewLifecycleOwner(), trackingTickObserver);
+        } else if (!shouldTick && trackingTicking) {
+            stopTrackingTicks();
+        }
     }
 
-    @Override
-    public void onPause() {
-        super.onPause();
-        // Stop tracking updates when fragment is not visible
-        trackingUpdateHandler.removeCallbacks(trackingUpdateRunnable);
+    private void stopTrackingTicks() {
+        trackingTicking = false;
+        TrackingTicker.getInstance().removeObserver(trackingTickObserver);
+    }
+
+    private boolean hasTrackingTasks() {
+        return viewModel.isPagedMode() ? pagingAdapter.hasTrackingTasks() : adapter.hasTrackingTasks();
+    }
+
+    private boolean notifyTrackingTick() {
+        return viewModel.isPagedMode() ? pagingAdapter.notifyTrackingTick() : adapter.notifyTrackingTick();
     }
 
     private void setupSwipeToDelete() {
@@ -300,9 +406,10 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskInteract
             @Override
             public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {
                 int position = viewHolder.getAdapterPosition();
-                if (position != RecyclerView.NO_POSITION &&
-                        adapter.getItemCount() > position) {
-                    Task taskToDelete = adapter.getTaskAt(position);
+                RecyclerView.Adapter<?> current = recyclerView.getAdapter();
+                if (position != RecyclerView.NO_POSITION && current != null &&
+                        current.getItemCount() > position) {
+                    Task taskToDelete = getTaskAt(position);
 
                     if (taskToDelete != null) {
                         new AlertDialog.Builder(getContext())
@@ -312,10 +419,10 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskInteract
                                     viewModel.deleteTask(taskToDelete);
                                 })
                                 .setNegativeButton("Cancel", (dialog, which) -> {
-                                    adapter.notifyItemChanged(position);
+                                    current.notifyItemChanged(position);
                                 })
                                 .setOnCancelListener(dialog -> {
-                                    adapter.notifyItemChanged(position);
+                                    current.notifyItemChanged(position);
                                 })
                                 .show();
                     }
@@ -545,6 +652,126 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskInteract
         datePickerDialog.show();
     }
 
+    @Override
+    public void onTaskSelectionStarted(Task task) {
+        viewModel.startSelection(task);
+        startSelectionMode();
+    }
+
+    @Override
+    public void onTaskSelectionToggled(Task task) {
+        viewModel.toggleSelection(task);
+        updateSelectionTitle();
+    }
+
+    // ===== Multi-select =====
+
+    private void startSelectionMode() {
+        applySelection(viewModel.getSelection());
+        selectionMode = ((AppCompatActivity) requireActivity()).startSupportActionMode(selectionCallback);
+        updateSelectionTitle();
+    }
+
+    private void applySelection(TaskSelection selection) {
+        adapter.setSelection(selection);
+        pagingAdapter.setSelection(selection);
+    }
+
+    private void updateSelectionTitle() {
+        TaskSelection selection = viewModel.getSelection();
+        if (selectionMode != null && selection != null) {
+            selectionMode.setTitle(selection.isAllMatching()
+                    ? "All matching" : selection.getIds().size() + " selected");
+        }
+    }
+
+    private final ActionMode.Callback selectionCallback = new ActionMode.Callback() {
+        @Override
+        public boolean onCreateActionMode(ActionMode mode, Menu menu) {
+            mode.getMenuInflater().inflate(R.menu.task_selection_menu, menu);
+            return true;
+        }
+
+        @Override
+        public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
+            menu.findItem(R.id.action_selection_all).setVisible(!viewModel.isSearching());
+            return true;
+        }
+
+        @Override
+        public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
+            TaskSelection selection = viewModel.getSelection();
+            if (selection == null) {
+                return false;
+            }
+            int id = item.getItemId();
+            if (id == R.id.action_selection_all) {
+                viewModel.selectAllMatching();
+                applySelection(selection);
+                updateSelectionTitle();
+                return true;
+            }
+            if (selection.isEmpty()) {
+                showToast("No tasks selected");
+                return true;
+            }
+            if (id == R.id.action_selection_complete) {
+                viewModel.completeSelected();
+                mode.finish();
+            } else if (id == R.id.action_selection_today) {
+                viewModel.moveSelectedTo(DayRange.today());
+                mode.finish();
+            } else if (id == R.id.action_selection_tomorrow) {
+                viewModel.moveSelectedTo(DayRange.tomorrow());
+                mode.finish();
+            } else if (id == R.id.action_selection_priority) {
+                showSelectionPriorityDialog(mode);
+            } else if (id == R.id.action_selection_delete) {
+                showSelectionDeleteDialog(mode, selection);
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void onDestroyActionMode(ActionMode mode) {
+            // Finished by onDestroyView: keep the selection for the recreated view
+            if (selectionMode != mode) {
+                return;
+            }
+            selectionMode = null;
+            viewModel.endSelection();
+            applySelection(null);
+        }
+    };
+
+    private void showSelectionPriorityDialog(ActionMode mode) {
+        String[] priorities = {"High", "Medium", "Low"};
+        new AlertDialog.Builder(getContext())
+                .setTitle("Set Priority")
+                .setItems(priorities, (dialog, which) -> {
+                    viewModel.setSelectedPriority(3 - which);
+                    mode.finish();
+                })
+                .show();
+    }
+
+    private void showSelectionDeleteDialog(ActionMode mode, TaskSelection selection) {
+        String message = selection.isAllMatching()
+                ? "Delete every task matching the current filters?"
+                : "Delete " + selection.getIds().size() + " selected tasks?";
+        new AlertDialog.Builder(getContext())
+                .setTitle("Delete Tasks")
+                .setMessage(message)
+                .setPositiveButton("Delete", (dialog, which) -> {
+                    viewModel.deleteSelected();
+                    mode.finish();
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
     private void showEditTaskDialog(Task task) {
         AlertDialog.Builder builder = new AlertDialog.Builder(getContext());
         View dialogView = LayoutInflater.from(getContext()).inflate(R.layout.dialog_add_task_enhanced, null);
@@ -618,8 +845,12 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskInteract
         if (mainHandler != null) {
             mainHandler.removeCallbacksAndMessages(null);
         }
-        if (trackingUpdateHandler != null) {
-            trackingUpdateHandler.removeCallbacks(trackingUpdateRunnable);
+        // The view lifecycle owner already dropped the ticker subscription
+        trackingTicking = false;
+        if (selectionMode != null) {
+            ActionMode mode = selectionMode;
+            selectionMode = null;
+            mode.finish();
         }
     }
 }
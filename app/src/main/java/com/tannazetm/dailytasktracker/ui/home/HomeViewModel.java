@@ -1,64 +1,196 @@
 package com.tannazetm.dailytasktracker.ui.home;
 
 import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Transformations;
-
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+
+import com.tannazetm.dailytasktracker.CoalescedQueryLiveData;
+import com.tannazetm.dailytasktracker.CoalescingInvalidationObserver;
+import com.tannazetm.dailytasktracker.DatabaseExecutors;
+import com.tannazetm.dailytasktracker.DayRange;
 import com.tannazetm.dailytasktracker.Task;
 import com.tannazetm.dailytasktracker.TaskDatabase;
+import com.tannazetm.dailytasktracker.TaskFilter;
+import com.tannazetm.dailytasktracker.TaskPageKey;
+import com.tannazetm.dailytasktracker.TaskPagingSource;
+import com.tannazetm.dailytasktracker.TaskRepository;
+import com.tannazetm.dailytasktracker.TaskSearchQuery;
+import com.tannazetm.dailytasktracker.TaskSelection;
+import com.tannazetm.dailytasktracker.TrackingService;
 import com.tannazetm.dailytasktracker.util.Event;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class HomeViewModel extends AndroidViewModel {
 
+    private static final int PAGE_SIZE = 50;
+    private static final String[] TASKS_TABLE = {"tasks"};
+    private static final long SEARCH_DEBOUNCE_MS = 250;
+    private static final int SEARCH_LIMIT = 200;
+
     private final TaskDatabase database;
-    private final ExecutorService executorService;
+    private final TaskRepository repository;
+    private final DatabaseExecutors executors;
 
+    // Query-backed LiveData re-run by Room's InvalidationTracker after writes, so mutations
+    // below don't refresh anything by hand
     private final MutableLiveData<List<Task>> allTasksLiveData;
-    private final MutableLiveData<List<Task>> filteredTasksLiveData;
-    private final MutableLiveData<Integer> immediateCountLiveData;
-    private final MutableLiveData<Integer> completedCountLiveData;
+    private final CoalescedQueryLiveData<List<Task>> filteredTasksLiveData;
+    private final CoalescedQueryLiveData<Integer> immediateCountLiveData;
+    private final CoalescedQueryLiveData<Integer> completedCountLiveData;
+    private final CoalescingInvalidationObserver pagingInvalidationObserver;
     private final MutableLiveData<Event<String>> toastMessageLiveData;
     private final MutableLiveData<Event<Task>> taskToShowCompletionLiveData;
+    private final LiveData<PagingData<Task>> pagedTasksLiveData;
+    private volatile TaskPagingSource currentPagingSource;
+
+    // Search: the query only runs once typing pauses, and a newer query cancels an older one
+    // that hasn't started and discards the result of one that has (searchGeneration)
+    private final MutableLiveData<List<Task>> searchResultsLiveData = new MutableLiveData<>();
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private volatile TaskSearchQuery searchQuery;
+    private volatile int searchGeneration;
+    private Future<?> pendingSearch; // main thread only
+
+    // Multi-select mode, kept here so it survives a configuration change; null when off.
+    // Main thread only.
+    private TaskSelection selection;
 
     // Filter state
     private String dateFilter = "today";
     private String statusFilter = "all";
     private int priorityFilter = -1; // -1 means all
-    private long customDateStart = 0;
-    private long customDateEnd = 0;
+    private DayRange customDateRange;
 
     public HomeViewModel(@NonNull Application application) {
         super(application);
         database = TaskDatabase.getDatabase(application);
-        executorService = Executors.newFixedThreadPool(4);
+        repository = TaskRepository.getInstance(application);
+        executors = DatabaseExecutors.getInstance();
 
         allTasksLiveData = new MutableLiveData<>();
-        filteredTasksLiveData = new MutableLiveData<>();
-        immediateCountLiveData = new MutableLiveData<>();
-        completedCountLiveData = new MutableLiveData<>();
+        // The list adapter is detached in paged mode, so skip the unbounded query there
+        filteredTasksLiveData = new CoalescedQueryLiveData<>(database, TASKS_TABLE, executors,
+                () -> isPagedMode() || isSearching() ? Collections.<Task>emptyList() : fetchTasksBasedOnFilters());
+        immediateCountLiveData = new CoalescedQueryLiveData<>(database, TASKS_TABLE, executors,
+                () -> database.taskDao().getImmediateTaskCount());
+        completedCountLiveData = new CoalescedQueryLiveData<>(database, TASKS_TABLE, executors, () -> {
+            DayRange today = DayRange.today();
+            return database.taskDao().getCompletedCountByDateRange(today.getStart(), today.getEnd());
+        });
         toastMessageLiveData = new MutableLiveData<>();
         taskToShowCompletionLiveData = new MutableLiveData<>();
 
-        // Initial data load
-        refreshTasks();
+        // Paged list for unbounded filters; a new source is created on every invalidation
+        Pager<TaskPageKey, Task> pager = new Pager<>(
+                new PagingConfig(PAGE_SIZE, PAGE_SIZE, false),
+                () -> {
+                    currentPagingSource = new TaskPagingSource(repository, buildCurrentFilter(),
+                            executors.readExecutor(DatabaseExecutors.Priority.UI));
+                    return currentPagingSource;
+                });
+        pagedTasksLiveData = PagingLiveData.cachedIn(PagingLiveData.getLiveData(pager),
+                ViewModelKt.getViewModelScope(this));
+
+        // Writes restart paging too, coalesced like the LiveData queries
+        pagingInvalidationObserver = new CoalescingInvalidationObserver(TASKS_TABLE, executors,
+                DatabaseExecutors.Priority.UI,
+                CoalescingInvalidationObserver.DEFAULT_WINDOW_MS, () -> {
+                    if (isPagedMode()) {
+                        invalidatePagingSource();
+                    }
+                    // Edits made from the result list show up in it
+                    if (isSearching()) {
+                        searchHandler.post(() -> startSearch(0));
+                    }
+                });
+        executors.read(DatabaseExecutors.Priority.UI, () ->
+                database.getInvalidationTracker().addObserver(pagingInvalidationObserver));
     }
 
     public LiveData<List<Task>> getFilteredTasks() {
         return filteredTasksLiveData;
     }
 
+    // Paged list used instead of getFilteredTasks() while isPagedMode() is true
+    public LiveData<PagingData<Task>> getPagedTasks() {
+        return pagedTasksLiveData;
+    }
+
+    // "All Tasks" has no date bound and can be the whole table, so it is paged; search results
+    // are bounded by SEARCH_LIMIT and use the plain list
+    public boolean isPagedMode() {
+        return dateFilter.equals("all") && !isSearching();
+    }
+
+    public LiveData<List<Task>> getSearchResults() {
+        return searchResultsLiveData;
+    }
+
+    public boolean isSearching() {
+        return searchQuery != null;
+    }
+
+    // Called on every keystroke; input without searchable words ends the search
+    public void setSearchText(String text) {
+        TaskSearchQuery query = TaskSearchQuery.parse(text);
+        TaskSearchQuery previous = searchQuery;
+        if (query == null ? previous == null
+                : previous != null && query.getMatch().equals(previous.getMatch())) {
+            return;
+        }
+        searchQuery = query;
+        if (query != null) {
+            startSearch(SEARCH_DEBOUNCE_MS);
+        } else {
+            cancelSearch();
+            searchResultsLiveData.setValue(Collections.emptyList());
+            // Back to the filtered list (or the pager), which skipped work while searching
+            refreshTasks();
+        }
+    }
+
+    // Main thread
+    private void startSearch(long delayMillis) {
+        cancelSearch();
+        int generation = searchGeneration;
+        searchHandler.postDelayed(() -> pendingSearch = executors.read(DatabaseExecutors.Priority.UI, () -> {
+            TaskSearchQuery query = searchQuery;
+            if (query == null || generation != searchGeneration) return;
+            List<Task> results = database.taskDao().searchTasks(
+                    query.getMatch(), query.getTitleMatch(), SEARCH_LIMIT);
+            if (generation == searchGeneration) {
+                searchResultsLiveData.postValue(results);
+            }
+        }), delayMillis);
+    }
+
+    // Main thread
+    private void cancelSearch() {
+        searchGeneration++;
+        searchHandler.removeCallbacksAndMessages(null);
+        if (pendingSearch != null) {
+            pendingSearch.cancel(false);
+            pendingSearch = null;
+        }
+    }
+
     public LiveData<Integer> getImmediateCount() {
         return immediateCountLiveData;
     }
@@ -94,21 +226,8 @@ public class HomeViewModel extends AndroidViewModel {
     public void setCustomDateFilter(long dateMillis) {
         this.dateFilter = "custom";
 
-        // Set start of day
-        Calendar startCal = Calendar.getInstance();
-        startCal.setTimeInMillis(dateMillis);
-        startCal.set(Calendar.HOUR_OF_DAY, 0);
-        startCal.set(Calendar.MINUTE, 0);
-        startCal.set(Calendar.SECOND, 0);
-        this.customDateStart = startCal.getTimeInMillis();
-
-        // Set end of day
-        Calendar endCal = Calendar.getInstance();
-        endCal.setTimeInMillis(dateMillis);
-        endCal.set(Calendar.HOUR_OF_DAY, 23);
-        endCal.set(Calendar.MINUTE, 59);
-        endCal.set(Calendar.SECOND, 59);
-        this.customDateEnd = endCal.getTimeInMillis();
+        // Whole local day containing the picked date
+        this.customDateRange = DayRange.dayOf(dateMillis);
 
         refreshTasks();
     }
@@ -132,7 +251,7 @@ public class HomeViewModel extends AndroidViewModel {
             activeFilters.add("This Week");
         } else if (dateFilter.equals("custom")) {
             SimpleDateFormat sdf = new SimpleDateFormat("MMM dd", Locale.getDefault());
-            activeFilters.add(sdf.format(new Date(customDateStart)));
+            activeFilters.add(sdf.format(new Date(customDateRange.getStart())));
         } else if (!dateFilter.equals("all")) {
             activeFilters.add("All");
         }
@@ -151,170 +270,83 @@ public class HomeViewModel extends AndroidViewModel {
         return String.join(" • ", activeFilters);
     }
 
+    // Re-runs the list for the current filters. Only needed when the filters change, to show an
+    // update that is still queued, or to discard local edits that were not written; writes are
+    // picked up automatically.
     public void refreshTasks() {
-        executorService.execute(() -> {
-            List<Task> tasks = fetchTasksBasedOnFilters();
-            filteredTasksLiveData.postValue(tasks);
-            updateCounters();
-        });
-    }
-
-    private List<Task> fetchTasksBasedOnFilters() {
-        List<Task> tasks;
-
-        // Determine date range
-        long startDate = 0;
-        long endDate = 0;
-        boolean useDateRange = false;
-
-        if (dateFilter.equals("today")) {
-            Calendar cal = Calendar.getInstance();
-            cal.set(Calendar.HOUR_OF_DAY, 0);
-            cal.set(Calendar.MINUTE, 0);
-            cal.set(Calendar.SECOND, 0);
-            startDate = cal.getTimeInMillis();
-
-            cal.set(Calendar.HOUR_OF_DAY, 23);
-            cal.set(Calendar.MINUTE, 59);
-            cal.set(Calendar.SECOND, 59);
-            endDate = cal.getTimeInMillis();
-            useDateRange = true;
-        } else if (dateFilter.equals("tomorrow")) {
-            Calendar cal = Calendar.getInstance();
-            cal.add(Calendar.DAY_OF_YEAR, 1);
-            cal.set(Calendar.HOUR_OF_DAY, 0);
-            cal.set(Calendar.MINUTE, 0);
-            cal.set(Calendar.SECOND, 0);
-            startDate = cal.getTimeInMillis();
-
-            cal.set(Calendar.HOUR_OF_DAY, 23);
-            cal.set(Calendar.MINUTE, 59);
-            cal.set(Calendar.SECOND, 59);
-            endDate = cal.getTimeInMillis();
-            useDateRange = true;
-        } else if (dateFilter.equals("week")) {
-            Calendar cal = Calendar.getInstance();
-            cal.set(Calendar.HOUR_OF_DAY, 0);
-            cal.set(Calendar.MINUTE, 0);
-            cal.set(Calendar.SECOND, 0);
-            startDate = cal.getTimeInMillis();
-
-            cal.add(Calendar.DAY_OF_YEAR, 7);
-            cal.set(Calendar.HOUR_OF_DAY, 23);
-            cal.set(Calendar.MINUTE, 59);
-            cal.set(Calendar.SECOND, 59);
-            endDate = cal.getTimeInMillis();
-            useDateRange = true;
-        } else if (dateFilter.equals("custom")) {
-            startDate = customDateStart;
-            endDate = customDateEnd;
-            useDateRange = true;
+        if (isPagedMode()) {
+            invalidatePagingSource();
         }
+        filteredTasksLiveData.requery();
+    }
 
-        // Fetch tasks based on combined filters
-        if (statusFilter.equals("overdue")) {
-            // Overdue tasks
-            if (priorityFilter == -1) {
-                tasks = database.taskDao().getOverdueTasksAll(System.currentTimeMillis());
-            } else {
-                tasks = database.taskDao().getOverdueTasksByPriority(System.currentTimeMillis(), priorityFilter);
-            }
-        } else if (statusFilter.equals("active")) {
-            // Active tasks
-            if (useDateRange) {
-                if (priorityFilter == -1) {
-                    tasks = database.taskDao().getActiveTasksByDate(startDate, endDate);
-                } else {
-                    tasks = database.taskDao().getActiveTasksByDateAndPriority(startDate, endDate, priorityFilter);
-                }
-            } else {
-                if (priorityFilter == -1) {
-                    tasks = database.taskDao().getActiveTasks();
-                } else {
-                    tasks = database.taskDao().getActiveTasksByPriority(priorityFilter);
-                }
-            }
-        } else if (statusFilter.equals("completed")) {
-            // Completed tasks
-            if (useDateRange) {
-                if (priorityFilter == -1) {
-                    tasks = database.taskDao().getCompletedTasksByDate(startDate, endDate);
-                } else {
-                    tasks = database.taskDao().getCompletedTasksByDateAndPriority(startDate, endDate, priorityFilter);
-                }
-            } else {
-                if (priorityFilter == -1) {
-                    tasks = database.taskDao().getCompletedTasks();
-                } else {
-                    tasks = database.taskDao().getCompletedTasksByPriority(priorityFilter);
-                }
-            }
-        } else {
-            // All tasks
-            if (useDateRange) {
-                if (priorityFilter == -1) {
-                    tasks = database.taskDao().getTasksByDateRange(startDate, endDate);
-                } else {
-                    tasks = database.taskDao().getTasksByDateAndPriority(startDate, endDate, priorityFilter);
-                }
-            } else {
-                if (priorityFilter == -1) {
-                    tasks = database.taskDao().getAllTasks();
-                } else {
-                    tasks = database.taskDao().getTasksByPriority(priorityFilter);
-                }
-            }
+    // The Pager reloads from a fresh source built with the current filters
+    private void invalidatePagingSource() {
+        TaskPagingSource source = currentPagingSource;
+        if (source != null) {
+            source.invalidate();
         }
+    }
 
-        return tasks;
+    // Served from the repository's in-memory index once it's loaded
+    private List<Task> fetchTasksBasedOnFilters() {
+        return repository.getTasks(buildCurrentFilter());
     }
 
-    private void updateCounters() {
-        executorService.execute(() -> {
-            int immediateCount = database.taskDao().getImmediateTaskCount();
-            int completedCount = database.taskDao().getTodayCompletedCount();
-            immediateCountLiveData.postValue(immediateCount);
-            completedCountLiveData.postValue(completedCount);
-        });
+    private TaskFilter buildCurrentFilter() {
+        return TaskFilter.fromChips(dateFilter, customDateRange, statusFilter, priorityFilter,
+                System.currentTimeMillis());
     }
 
+    // Writes go through the repository, which keeps its index in step with them
     public void insertTask(Task task) {
-        executorService.execute(() -> {
-            long taskId = database.taskDao().insertTask(task);
-            task.setId((int) taskId);
-            toastMessageLiveData.postValue(new Event<>("Task created successfully!"));
-            refreshTasks();
-        });
+        repository.insertTask(task,
+                inserted -> toastMessageLiveData.postValue(new Event<>("Task created successfully!")));
     }
 
+    // Shown right away: the repository applies the update in memory and writes it behind, so
+    // the list is re-read from memory now instead of after the database round trip
     public void updateTask(Task task) {
-        executorService.execute(() -> {
-            database.taskDao().updateTask(task);
-            refreshTasks();
+        boolean tracking = task.isInProgress();
+        repository.updateTask(task, new TaskRepository.OnTaskUpdatedCallback() {
+            @Override
+            public void onTaskUpdated(Task updated) {
+                // The service takes over the running session; it stops itself once nothing tracks
+                if (tracking) {
+                    TrackingService.start(getApplication());
+                }
 
-            // Check if task was completed and has tracking data for completion dialog
-            if (task.isCompleted() && task.getActualDuration() > 0) {
-                taskToShowCompletionLiveData.postValue(new Event<>(task));
+                // Check if task was completed and has tracking data for completion dialog
+                if (task.isCompleted() && task.getActualDuration() > 0) {
+                    taskToShowCompletionLiveData.postValue(new Event<>(task));
+                }
+            }
+
+            @Override
+            public void onTaskUpdateFailed() {
+                toastMessageLiveData.postValue(new Event<>("Couldn't save the change"));
+                // Back to the saved state, including the row the adapter already changed
+                refreshTasks();
             }
         });
+        refreshTasks();
     }
 
     public void deleteTask(Task task) {
-        executorService.execute(() -> {
-            database.taskDao().deleteTask(task);
-            toastMessageLiveData.postValue(new Event<>("Task deleted"));
-            refreshTasks();
-        });
+        repository.deleteTask(task, () -> toastMessageLiveData.postValue(new Event<>("Task deleted")));
     }
 
     public void toggleTaskImmediate(Task task) {
-        executorService.execute(() -> {
-            int currentCount = database.taskDao().getImmediateTaskCount();
-            if (task.isImmediate() || currentCount < 5) {
-                database.taskDao().updateTask(task);
-                refreshTasks();
-            } else {
-                toastMessageLiveData.postValue(new Event<>("Maximum 5 immediate tasks allowed"));
+        repository.checkAndToggleImmediate(task, new TaskRepository.OnImmediateToggleCallback() {
+            @Override
+            public void onToggleSuccess() {
+                // The adapter already shows the new state
+            }
+
+            @Override
+            public void onToggleFailed(String message) {
+                toastMessageLiveData.postValue(new Event<>(message));
+                // Nothing was written; re-query to undo the star the adapter already flipped
                 refreshTasks();
             }
         });
@@ -329,12 +361,70 @@ public class HomeViewModel extends AndroidViewModel {
         toastMessageLiveData.postValue(new Event<>("Rescheduled to " + sdf.format(new Date(newTimestamp))));
     }
 
+    // ===== Multi-select =====
+
+    public TaskSelection getSelection() {
+        return selection;
+    }
+
+    public TaskSelection startSelection(Task task) {
+        selection = new TaskSelection();
+        selection.toggle(task.getId());
+        return selection;
+    }
+
+    public void endSelection() {
+        selection = null;
+    }
+
+    public void toggleSelection(Task task) {
+        if (selection != null) {
+            selection.toggle(task.getId());
+        }
+    }
+
+    // Every task the current filters match, loaded into the list or not. Not offered while
+    // searching: the filters don't describe the search results.
+    public void selectAllMatching() {
+        if (selection != null) {
+            selection.selectAll(buildCurrentFilter());
+        }
+    }
+
+    // The bulk actions below each write the whole selection in one transaction and end the
+    // selection; the lists refresh from the write's invalidation
+
+    public void completeSelected() {
+        repository.completeTasks(selection, count -> postCount(count, " completed"));
+        endSelection();
+    }
+
+    public void moveSelectedTo(DayRange day) {
+        repository.rescheduleTasks(selection, day.getStart(), count -> postCount(count, " rescheduled"));
+        endSelection();
+    }
+
+    public void setSelectedPriority(int priority) {
+        repository.setPriority(selection, priority, count -> postCount(count, " updated"));
+        endSelection();
+    }
+
+    public void deleteSelected() {
+        repository.deleteTasks(selection, count -> postCount(count, " deleted"));
+        endSelection();
+    }
+
+    private void postCount(int count, String action) {
+        toastMessageLiveData.postValue(new Event<>(count + (count == 1 ? " task" : " tasks") + action));
+    }
+
     @Override
     protected void onCleared() {
         super.onCleared();
-        if (executorService != null && !executorService.isShutdown()) {
-            executorService.shutdown();
-        }
+        cancelSearch();
+        // The executors are shared and outlive this view model; only the observer is ours
+        executors.read(DatabaseExecutors.Priority.UI, () ->
+                database.getInvalidationTracker().removeObserver(pagingInvalidationObserver));
     }
 }
 
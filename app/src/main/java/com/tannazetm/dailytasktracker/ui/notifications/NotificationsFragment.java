@@ -50,18 +50,21 @@ import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
 import androidx.fragment.app.Fragment;
 
+import com.tannazetm.dailytasktracker.DatabaseExecutors;
+import com.tannazetm.dailytasktracker.NotificationSnapshot;
 import com.tannazetm.dailytasktracker.R;
 import com.tannazetm.dailytasktracker.Task;
 import com.tannazetm.dailytasktracker.TaskDatabase;
 
 import java.text.SimpleDateFormat;
-import java.util.Calendar;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.Executors;
 
 public class NotificationsFragment extends Fragment {
 
+    // Rows shown per card and in recent activity
+    private static final int MAX_LISTED_TASKS = 5;
+
     private TaskDatabase database;
 
     // Views
@@ -110,40 +113,23 @@ public class NotificationsFragment extends Fragment {
     }
 
     private void loadNotifications() {
-        Executors.newSingleThreadExecutor().execute(() -> {
-            // Get current time
-            long currentTime = System.currentTimeMillis();
-
-            // Get overdue tasks
-            List<Task> overdueTasks = database.taskDao().getOverdueTasksAll(currentTime);
-
-            // Get today's tasks
-            List<Task> todayTasks = database.taskDao().getTodayTasks();
-
-            // Get tomorrow's tasks
-            List<Task> tomorrowTasks = database.taskDao().getTomorrowTasks();
-
-            // Get all tasks for stats
-            List<Task> allTasks = database.taskDao().getAllTasks();
-
-            // Calculate stats
-            int activeTasksCount = 0;
-            int completedTasksCount = 0;
-            for (Task task : allTasks) {
-                if (task.isCompleted()) {
-                    completedTasksCount++;
-                } else {
-                    activeTasksCount++;
-                }
-            }
+        // Dropped if the view is destroyed before it starts
+        DatabaseExecutors.getInstance().read(getViewLifecycleOwner(), DatabaseExecutors.Priority.UI, () -> {
+            // Only the first rows of each list plus counts, in one read transaction
+            NotificationSnapshot snapshot = NotificationSnapshot.load(
+                    database, System.currentTimeMillis(), MAX_LISTED_TASKS);
+            NotificationSnapshot.Counts counts = snapshot.counts;
+
+            int totalTasks = counts.totalCount;
+            int completedTasksCount = counts.completedCount;
+            int activeTasksCount = snapshot.getActiveCount();
 
-            int totalTasks = allTasks.size();
             int completionPercentage = totalTasks > 0 ? (completedTasksCount * 100) / totalTasks : 0;
 
             // Get recent activity (last 5 completed tasks)
-            List<Task> completedTasks = database.taskDao().getCompletedTasks();
+            List<Task> completedTasks = snapshot.recentCompleted;
             StringBuilder recentActivity = new StringBuilder();
-            int activityCount = Math.min(5, completedTasks.size());
+            int activityCount = completedTasks.size();
 
             if (activityCount > 0) {
                 for (int i = 0; i < activityCount; i++) {
@@ -158,37 +144,35 @@ public class NotificationsFragment extends Fragment {
             }
 
             // Build task lists
-            String overdueListText = buildTaskList(overdueTasks);
-            String todayListText = buildTaskList(todayTasks);
-            String tomorrowListText = buildTaskList(tomorrowTasks);
+            String overdueListText = buildTaskList(snapshot.overdueTasks, counts.overdueCount);
+            String todayListText = buildTaskList(snapshot.todayTasks, counts.todayCount);
+            String tomorrowListText = buildTaskList(snapshot.tomorrowTasks, counts.tomorrowCount);
 
             // Update UI on main thread
             if (getActivity() != null) {
-                int finalActiveTasksCount = activeTasksCount;
-                int finalCompletedTasksCount = completedTasksCount;
                 getActivity().runOnUiThread(() -> {
                     // Update overdue card
-                    if (overdueTasks.size() > 0) {
+                    if (counts.overdueCount > 0) {
                         overdueCard.setVisibility(View.VISIBLE);
-                        overdueCount.setText(String.valueOf(overdueTasks.size()));
+                        overdueCount.setText(String.valueOf(counts.overdueCount));
                         overdueTasksList.setText(overdueListText);
                     } else {
                         overdueCard.setVisibility(View.GONE);
                     }
 
                     // Update due today card
-                    if (todayTasks.size() > 0) {
+                    if (counts.todayCount > 0) {
                         dueTodayCard.setVisibility(View.VISIBLE);
-                        dueTodayCount.setText(String.valueOf(todayTasks.size()));
+                        dueTodayCount.setText(String.valueOf(counts.todayCount));
                         dueTodayTasksList.setText(todayListText);
                     } else {
                         dueTodayCard.setVisibility(View.GONE);
                     }
 
                     // Update due tomorrow card
-                    if (tomorrowTasks.size() > 0) {
+                    if (counts.tomorrowCount > 0) {
                         dueTomorrowCard.setVisibility(View.VISIBLE);
-                        dueTomorrowCount.setText(String.valueOf(tomorrowTasks.size()));
+                        dueTomorrowCount.setText(String.valueOf(counts.tomorrowCount));
                         dueTomorrowTasksList.setText(tomorrowListText);
                     } else {
                         dueTomorrowCard.setVisibility(View.GONE);
@@ -198,12 +182,12 @@ public class NotificationsFragment extends Fragment {
                     recentActivityText.setText(recentActivity.toString());
 
                     // Update stats
-                    totalActiveCount.setText(String.valueOf(finalActiveTasksCount));
-                    totalCompletedCount.setText(String.valueOf(finalCompletedTasksCount));
+                    totalActiveCount.setText(String.valueOf(activeTasksCount));
+                    totalCompletedCount.setText(String.valueOf(completedTasksCount));
                     completionRate.setText(completionPercentage + "%");
 
                     // Show/hide empty state
-                    if (overdueTasks.size() == 0 && todayTasks.size() == 0 && tomorrowTasks.size() == 0) {
+                    if (snapshot.isEmpty()) {
                         emptyStateLayout.setVisibility(View.VISIBLE);
                     } else {
                         emptyStateLayout.setVisibility(View.GONE);
@@ -213,7 +197,8 @@ public class NotificationsFragment extends Fragment {
         });
     }
 
-    private String buildTaskList(List<Task> tasks) {
+    // tasks holds at most MAX_LISTED_TASKS rows; totalCount is the size of the whole bucket
+    private String buildTaskList(List<Task> tasks, int totalCount) {
         if (tasks.isEmpty()) {
             return "No tasks";
         }
@@ -221,8 +206,7 @@ public class NotificationsFragment extends Fragment {
         StringBuilder builder = new StringBuilder();
         SimpleDateFormat timeFormat = new SimpleDateFormat("h:mm a", Locale.getDefault());
 
-        // Show max 5 tasks
-        int count = Math.min(5, tasks.size());
+        int count = tasks.size();
         for (int i = 0; i < count; i++) {
             Task task = tasks.get(i);
             String timeStr = timeFormat.format(task.getDueTimestamp());
@@ -235,8 +219,8 @@ public class NotificationsFragment extends Fragment {
             }
         }
 
-        if (tasks.size() > 5) {
-            builder.append("\n... and ").append(tasks.size() - 5).append(" more");
+        if (totalCount > count) {
+            builder.append("\n... and ").append(totalCount - count).append(" more");
         }
 
         return builder.toString();
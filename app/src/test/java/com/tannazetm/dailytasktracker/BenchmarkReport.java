@@ -0,0 +1,122 @@
+package com.tannazetm.dailytasktracker;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Latency samples per benchmark case, summarized as percentiles and written as JSON. A report
+ * written by an earlier commit can be passed back in as the baseline; compare() lists every case
+ * whose median got slower than the allowed ratio.
+ *
+ * Format: {"results": [{"case": "home.today.all.any", "size": 10000, "samples": 50,
+ * "p50Ms": 0.41, "p90Ms": 0.52, "p99Ms": 0.93, "maxMs": 1.20}, ...]}
+ */
+final class BenchmarkReport {
+
+    private final Map<String, List<Long>> samples = new LinkedHashMap<>();
+
+    void add(int size, String name, long nanos) {
+        String key = key(size, name);
+        List<Long> list = samples.get(key);
+        if (list == null) {
+            list = new ArrayList<>();
+            samples.put(key, list);
+        }
+        list.add(nanos);
+    }
+
+    JSONObject toJson() throws JSONException {
+        JSONArray results = new JSONArray();
+        for (Map.Entry<String, List<Long>> entry : samples.entrySet()) {
+            List<Long> sorted = new ArrayList<>(entry.getValue());
+            Collections.sort(sorted);
+            String[] parts = entry.getKey().split("/", 2);
+            results.put(new JSONObject()
+                    .put("case", parts[1])
+                    .put("size", Integer.parseInt(parts[0]))
+                    .put("samples", sorted.size())
+                    .put("p50Ms", millis(percentile(sorted, 50)))
+                    .put("p90Ms", millis(percentile(sorted, 90)))
+                    .put("p99Ms", millis(percentile(sorted, 99)))
+                    .put("maxMs", millis(sorted.get(sorted.size() - 1))));
+        }
+        return new JSONObject().put("results", results);
+    }
+
+    void write(File file) throws IOException, JSONException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        Files.write(file.toPath(), toJson().toString(2).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // One line per case, for the test output
+    String summary() throws JSONException {
+        StringBuilder out = new StringBuilder();
+        JSONArray results = toJson().getJSONArray("results");
+        for (int i = 0; i < results.length(); i++) {
+            JSONObject result = results.getJSONObject(i);
+            out.append(String.format(Locale.US, "%8d %-40s p50=%8.3fms p90=%8.3fms p99=%8.3fms max=%8.3fms%n",
+                    result.getInt("size"), result.getString("case"), result.getDouble("p50Ms"),
+                    result.getDouble("p90Ms"), result.getDouble("p99Ms"), result.getDouble("maxMs")));
+        }
+        return out.toString();
+    }
+
+    // Cases present in both reports whose p50 grew by more than maxRatio; sub-0.05 ms medians
+    // are ignored because timer noise dominates them
+    List<String> compare(File baselineFile, double maxRatio) throws IOException, JSONException {
+        JSONObject baseline = new JSONObject(new String(
+                Files.readAllBytes(baselineFile.toPath()), StandardCharsets.UTF_8));
+        Map<String, Double> before = medians(baseline);
+        Map<String, Double> after = medians(toJson());
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : after.entrySet()) {
+            Double old = before.get(entry.getKey());
+            if (old == null || old < 0.05) continue;
+            double ratio = entry.getValue() / old;
+            if (ratio > maxRatio) {
+                regressions.add(String.format(Locale.US, "%s: p50 %.3fms -> %.3fms (x%.2f)",
+                        entry.getKey(), old, entry.getValue(), ratio));
+            }
+        }
+        return regressions;
+    }
+
+    private static Map<String, Double> medians(JSONObject report) throws JSONException {
+        Map<String, Double> medians = new LinkedHashMap<>();
+        JSONArray results = report.getJSONArray("results");
+        for (int i = 0; i < results.length(); i++) {
+            JSONObject result = results.getJSONObject(i);
+            medians.put(key(result.getInt("size"), result.getString("case")), result.getDouble("p50Ms"));
+        }
+        return medians;
+    }
+
+    private static String key(int size, String name) {
+        return size + "/" + name;
+    }
+
+    private static long percentile(List<Long> sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1e3) / 1e3;
+    }
+}
@@ -0,0 +1,66 @@
+package com.tannazetm.dailytasktracker;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * CoalescingInvalidationObserver on the real read lane: requests that arrive while the action
+ * runs are folded into exactly one more run, which never overlaps the current one.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CoalescingInvalidationObserverTest {
+
+    @Test
+    public void requestsDuringARun_runOnceMoreAfterIt() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        Semaphore finished = new Semaphore(0);
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        CoalescingInvalidationObserver observer = new CoalescingInvalidationObserver(
+                new String[]{"tasks"}, DatabaseExecutors.getInstance(), DatabaseExecutors.Priority.UI,
+                CoalescingInvalidationObserver.DEFAULT_WINDOW_MS, () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    if (runs.incrementAndGet() == 1) {
+                        firstStarted.countDown();
+                        await(releaseFirst);
+                    }
+                    running.decrementAndGet();
+                    finished.release();
+                });
+
+        observer.requestNow();
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        // A filter change and a write while the first run is still going
+        observer.requestNow();
+        observer.onInvalidated(Collections.singleton("tasks"));
+        observer.requestNow();
+        releaseFirst.countDown();
+
+        assertTrue(finished.tryAcquire(2, 5, TimeUnit.SECONDS));
+        // Nothing else was pending
+        assertFalse(finished.tryAcquire(1, 3 * CoalescingInvalidationObserver.DEFAULT_WINDOW_MS,
+                TimeUnit.MILLISECONDS));
+        assertEquals(2, runs.get());
+        assertEquals(1, maxRunning.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
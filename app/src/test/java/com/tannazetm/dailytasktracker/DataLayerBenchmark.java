@@ -0,0 +1,229 @@
+package com.tannazetm.dailytasktracker;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Data layer benchmark on the JVM: seeds an in-memory Room database per size with
+ * SyntheticDataset, then times every TaskDao query, the Home filter queries exactly as
+ * HomeViewModel.fetchTasksBasedOnFilters and the paged "All Tasks" list build them (from
+ * TaskFilter.fromChips), the same filters answered by TaskIndex, the Dashboard and
+ * Notifications loads, and a 10k-row bulk reschedule done in one transaction
+ * (TaskDao.rescheduleTasks, as the Home multi-select does) against one full-row update, each
+ * its own transaction, per row. Percentiles go to stdout and to a
+ * JSON report.
+ *
+ * Skipped unless requested:
+ *   ./gradlew :app:testDebugUnitTest --tests '*DataLayerBenchmark' -Pbenchmark
+ * Options (Gradle properties, forwarded as system properties):
+ *   -Pbenchmark.sizes=1000,10000,100000   table sizes (up to 1000000 with enough heap)
+ *   -Pbenchmark.iterations=30             timed runs per case, after a few warm-up runs
+ *   -Pbenchmark.baseline=path/to.json     fail if a median regressed against this report
+ *   -Pbenchmark.maxRatio=1.5              allowed p50 slowdown against the baseline
+ * The report is written to app/build/benchmark/data-layer.json; keep a copy from the base
+ * commit to compare against.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DataLayerBenchmark {
+
+    private static final long SEED = 42;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+    // NotificationsFragment lists this many tasks per section
+    private static final int NOTIFICATION_LIMIT = 5;
+    private static final int SEARCH_LIMIT = 200;
+    private static final int PAGE_SIZE = 50;
+    // Rows moved by the bulk reschedule case, run for tables at least this big
+    private static final int BULK_ROWS = 10000;
+    // One UPDATE per row is slow enough at BULK_ROWS that a few runs are plenty
+    private static final int PER_ROW_ITERATIONS = 3;
+
+    private static final String[] DATE_FILTERS = {"today", "tomorrow", "week", "custom", "all"};
+    private static final String[] STATUS_FILTERS = {"all", "active", "completed", "overdue"};
+    private static final int[] PRIORITY_FILTERS = {-1, 3};
+    private static final String[] SEARCHES = {"re", "review report", "\"project proposal\""};
+
+    private Context context;
+    private int iterations;
+
+    @Before
+    public void setUp() {
+        assumeTrue("Run with -Pbenchmark", System.getProperty("benchmark") != null);
+        context = ApplicationProvider.getApplicationContext();
+        iterations = Integer.parseInt(System.getProperty("benchmark.iterations", "30"));
+    }
+
+    @Test
+    public void dataLayer() throws Exception {
+        BenchmarkReport report = new BenchmarkReport();
+        for (String size : System.getProperty("benchmark.sizes", "1000,10000,100000").split(",")) {
+            run(Integer.parseInt(size.trim()), report);
+        }
+
+        File output = new File(System.getProperty("benchmark.outputDir", "build/benchmark"), "data-layer.json");
+        report.write(output);
+        System.out.print(report.summary());
+        System.out.println("Benchmark report: " + output.getAbsolutePath());
+
+        String baseline = System.getProperty("benchmark.baseline");
+        if (baseline != null && !baseline.isEmpty()) {
+            double maxRatio = Double.parseDouble(System.getProperty("benchmark.maxRatio", "1.5"));
+            List<String> regressions = report.compare(new File(baseline), maxRatio);
+            assertTrue("Slower than " + baseline + ":\n" + String.join("\n", regressions),
+                    regressions.isEmpty());
+        }
+    }
+
+    private void run(int size, BenchmarkReport report) {
+        TaskDatabase database = Room.inMemoryDatabaseBuilder(context, TaskDatabase.class)
+                .allowMainThreadQueries()
+                .addCallback(TaskDatabase.STATS_TRIGGERS)
+                .addCallback(TaskDatabase.FTS_TRIGGERS)
+                .build();
+        try {
+            long now = System.currentTimeMillis();
+            new SyntheticDataset(SEED, now).populate(database, size);
+            TaskDao dao = database.taskDao();
+            DayRange today = DayRange.today();
+            DayRange tomorrow = DayRange.tomorrow();
+
+            // Home list, every chip combination
+            DayRange custom = DayRange.dayOf(now - 7 * DAY_MS);
+            for (String date : DATE_FILTERS) {
+                for (String status : STATUS_FILTERS) {
+                    for (int priority : PRIORITY_FILTERS) {
+                        TaskFilter filter = TaskFilter.fromChips(date, custom, status, priority, now);
+                        String name = "home." + date + "." + status + "." + (priority == -1 ? "any" : "p" + priority);
+                        if (date.equals("all")) {
+                            // Paged: the first page is what the user waits for
+                            int group = TaskQueryBuilder.pageGroupValues(filter)[0];
+                            measure(report, size, name, () -> dao.getTasksByFilter(
+                                    TaskQueryBuilder.buildPage(filter, group, null, PAGE_SIZE)));
+                        } else {
+                            measure(report, size, name, () -> dao.getTasksByFilter(TaskQueryBuilder.build(filter)));
+                        }
+                    }
+                }
+            }
+
+            // The same chips from TaskRepository's in-memory index, for tables it mirrors. Each
+            // filter's result is cached after the first run, as on a warm app.
+            if (size <= TaskRepository.MAX_INDEXED_TASKS) {
+                TaskIndex index = new TaskIndex();
+                measure(report, size, "index.load", () -> index.load(dao.getAllTasks()));
+                for (String date : DATE_FILTERS) {
+                    for (String status : STATUS_FILTERS) {
+                        TaskFilter filter = TaskFilter.fromChips(date, custom, status, -1, now);
+                        measure(report, size, "index.home." + date + "." + status, () -> index.query(filter));
+                    }
+                }
+            }
+
+            // Screens
+            measure(report, size, "dashboard.load", () -> database.taskStatsDao().getPriorityStats());
+            measure(report, size, "notifications.load",
+                    () -> NotificationSnapshot.load(database, now, NOTIFICATION_LIMIT));
+
+            // TaskDao reads
+            measure(report, size, "dao.getAllTasks", dao::getAllTasks);
+            measure(report, size, "dao.getTasksByDateRange",
+                    () -> dao.getTasksByDateRange(today.getStart(), today.getEnd()));
+            measure(report, size, "dao.getTasksByDateRange.limit",
+                    () -> dao.getTasksByDateRange(today.getStart(), today.getEnd(), NOTIFICATION_LIMIT));
+            measure(report, size, "dao.getCompletedTasks", dao::getCompletedTasks);
+            measure(report, size, "dao.getOverdueTasksAll", () -> dao.getOverdueTasksAll(now));
+            measure(report, size, "dao.getOverdueTasks", () -> dao.getOverdueTasks(now, NOTIFICATION_LIMIT));
+            measure(report, size, "dao.getRecentCompletedTasks",
+                    () -> dao.getRecentCompletedTasks(NOTIFICATION_LIMIT));
+            measure(report, size, "dao.getNotificationCounts", () -> dao.getNotificationCounts(now,
+                    today.getStart(), today.getEnd(), tomorrow.getStart(), tomorrow.getEnd()));
+            measure(report, size, "dao.getInProgressTasks", dao::getInProgressTasks);
+            measure(report, size, "dao.getInProgressCount", dao::getInProgressCount);
+            measure(report, size, "dao.getTaskById", () -> dao.getTaskById(size / 2));
+            measure(report, size, "dao.getImmediateTaskCount", dao::getImmediateTaskCount);
+            measure(report, size, "dao.getCompletedCount", dao::getCompletedCount);
+            measure(report, size, "dao.getCompletedCountByDateRange",
+                    () -> dao.getCompletedCountByDateRange(today.getStart(), today.getEnd()));
+            for (String text : SEARCHES) {
+                TaskSearchQuery query = TaskSearchQuery.parse(text);
+                measure(report, size, "dao.searchTasks[" + text.replace("\"", "'") + "]",
+                        () -> dao.searchTasks(query.getMatch(), query.getTitleMatch(), SEARCH_LIMIT));
+            }
+
+            // TaskDao writes. A full-row update fires the task_stats and full-text triggers
+            Task existing = dao.getTaskById(size / 2);
+            measure(report, size, "dao.updateTask", () -> dao.updateTask(existing));
+            // The partial updates the write-behind flush uses instead for checkbox and play/pause;
+            // neither sets title or description, so the full-text index isn't re-tokenized
+            measure(report, size, "dao.setCompleted", () -> dao.setCompleted(existing.getId(), existing.isCompleted()));
+            measure(report, size, "dao.startTracking", () -> dao.startTracking(existing.getId(), existing.getStartTime()));
+            // A second later each run, or every run after the first would match no rows
+            long[] checkpointAt = {now};
+            measure(report, size, "dao.checkpointInProgressTasks",
+                    () -> dao.checkpointInProgressTasks(checkpointAt[0] += 1000));
+            for (int i = 0; i < WARMUP_ITERATIONS + iterations; i++) {
+                Task task = new Task("Benchmark task " + i, "", now + DAY_MS, 30);
+                long start = System.nanoTime();
+                task.setId((int) dao.insertTask(task));
+                long inserted = System.nanoTime();
+                dao.deleteTask(task);
+                long deleted = System.nanoTime();
+                if (i >= WARMUP_ITERATIONS) {
+                    report.add(size, "dao.insertTask", inserted - start);
+                    report.add(size, "dao.deleteTask", deleted - inserted);
+                }
+            }
+
+            // Bulk reschedule of BULK_ROWS tasks onto one day, alternating days so every run
+            // changes every row
+            if (size >= BULK_ROWS) {
+                TaskFilter all = TaskFilter.fromChips("all", null, "all", -1, now);
+                List<Integer> ids = dao.getTaskIdsByFilter(TaskQueryBuilder.buildIds(all)).subList(0, BULK_ROWS);
+                long[] days = {today.getStart(), tomorrow.getStart()};
+                int[] run = {0};
+                measure(report, size, "bulk.reschedule.transaction", iterations,
+                        () -> dao.rescheduleTasks(ids, days[run[0]++ % 2]));
+                List<Task> tasks = dao.getTasksByIds(ids);
+                measure(report, size, "bulk.reschedule.perRow", PER_ROW_ITERATIONS, () -> {
+                    DayRange day = DayRange.dayOf(days[run[0]++ % 2]);
+                    for (Task task : tasks) {
+                        long due = day.atTimeOf(task.getDueTimestamp());
+                        task.setDueTimestamp(due);
+                        task.setScheduledDate(due);
+                        dao.updateTask(task);
+                    }
+                });
+            }
+        } finally {
+            database.close();
+        }
+    }
+
+    private void measure(BenchmarkReport report, int size, String name, Runnable query) {
+        measure(report, size, name, iterations, query);
+    }
+
+    private void measure(BenchmarkReport report, int size, String name, int runs, Runnable query) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            query.run();
+        }
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            query.run();
+            report.add(size, name, System.nanoTime() - start);
+        }
+    }
+}
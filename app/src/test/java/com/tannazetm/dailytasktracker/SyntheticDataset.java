@@ -0,0 +1,128 @@
+package com.tannazetm.dailytasktracker;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import java.util.Random;
+
+/**
+ * Seeded generator of realistic task tables for the data layer benchmarks. The same seed and
+ * size always produce the same rows, so timings are comparable across commits.
+ *
+ * Distributions, loosely modelled on a long-used personal task list:
+ * - priority: 25% low, 50% medium, 25% high
+ * - dueTimestamp: 85% in the past (exponential, mean 60 days, at most a year back), 15% within
+ *   the next 30 days
+ * - completion: 85% of past tasks, 10% of future ones
+ * - estimatedDuration 15-120 minutes; completed tasks carry an actual duration around it
+ * - at most 5 immediate and 2 in-progress tasks, as the app itself allows
+ */
+final class SyntheticDataset {
+
+    private static final long MINUTE_MS = 60 * 1000L;
+    private static final long DAY_MS = 24 * 60 * MINUTE_MS;
+    private static final int MAX_IMMEDIATE = 5;
+    private static final int MAX_TRACKING = 2;
+
+    // Title and description vocabulary, so full-text search has realistic hit rates
+    private static final String[] VERBS = {
+            "Review", "Write", "Plan", "Call", "Email", "Fix", "Prepare", "Read", "Update", "Clean",
+            "Buy", "Schedule", "Draft", "Submit", "Organize", "Book", "Pay", "Check", "Finish", "Study"
+    };
+    private static final String[] NOUNS = {
+            "report", "presentation", "groceries", "budget", "meeting notes", "invoice", "kitchen",
+            "project proposal", "dentist appointment", "car insurance", "workout plan", "blog post",
+            "tax return", "flight tickets", "chapter three", "pull request", "backlog", "garden",
+            "birthday gift", "quarterly review"
+    };
+    private static final String[] DETAILS = {
+            "", "", "", "before the team sync", "ask Sam for the latest numbers",
+            "remember the receipts", "needs a second pass", "follow up next week",
+            "use the new template", "share with the family"
+    };
+    private static final String[] CATEGORIES = {"Work", "Personal", "Health", "Home", "Study"};
+    private static final String[] COLOR_TAGS = {
+            "#4A90E2", "#8B5CF6", "#10B981", "#F59E0B", "#EF4444", "#EC4899"
+    };
+
+    private static final String INSERT_SQL = "INSERT INTO tasks (title, description, "
+            + "createdTimestamp, dueTimestamp, scheduledDate, startTime, endTime, estimatedDuration, "
+            + "actualDuration, trackedMillis, isCompleted, isImmediate, isInProgress, priority, "
+            + "category, colorTag) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final long seed;
+    private final long now;
+
+    SyntheticDataset(long seed, long now) {
+        this.seed = seed;
+        this.now = now;
+    }
+
+    // Inserts count rows with one compiled statement in a single transaction; the task_stats
+    // and full-text triggers run for every row, exactly as for rows inserted by the app
+    void populate(TaskDatabase database, int count) {
+        Random random = new Random(seed);
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+        int immediate = 0;
+        int tracking = 0;
+
+        db.beginTransaction();
+        try (SupportSQLiteStatement insert = db.compileStatement(INSERT_SQL)) {
+            for (int i = 0; i < count; i++) {
+                boolean past = random.nextDouble() < 0.85;
+                long due = past ? now - pastOffset(random) : now + (long) (random.nextDouble() * 30 * DAY_MS);
+                due -= due % MINUTE_MS;
+                boolean completed = random.nextDouble() < (past ? 0.85 : 0.10);
+                int estimated = 15 + random.nextInt(22) * 5;
+                int actual = completed && random.nextDouble() < 0.7
+                        ? Math.max(1, (int) (estimated * (0.5 + random.nextDouble()))) : 0;
+
+                boolean isImmediate = !completed && !past && immediate < MAX_IMMEDIATE
+                        && random.nextDouble() < 0.01;
+                if (isImmediate) immediate++;
+                boolean inProgress = !completed && !past && tracking < MAX_TRACKING
+                        && random.nextDouble() < 0.01;
+                long startTime = 0;
+                if (inProgress) {
+                    tracking++;
+                    startTime = now - (1 + random.nextInt(60)) * MINUTE_MS;
+                }
+
+                insert.clearBindings();
+                insert.bindString(1, VERBS[random.nextInt(VERBS.length)] + " "
+                        + NOUNS[random.nextInt(NOUNS.length)]);
+                insert.bindString(2, DETAILS[random.nextInt(DETAILS.length)]);
+                insert.bindLong(3, due - (1 + random.nextInt(14)) * DAY_MS);
+                insert.bindLong(4, due);
+                insert.bindLong(5, due);
+                insert.bindLong(6, startTime);
+                insert.bindLong(7, 0);
+                insert.bindLong(8, estimated);
+                insert.bindLong(9, actual);
+                insert.bindLong(10, actual * MINUTE_MS);
+                insert.bindLong(11, completed ? 1 : 0);
+                insert.bindLong(12, isImmediate ? 1 : 0);
+                insert.bindLong(13, inProgress ? 1 : 0);
+                insert.bindLong(14, priority(random));
+                insert.bindString(15, CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                insert.bindString(16, COLOR_TAGS[random.nextInt(COLOR_TAGS.length)]);
+                insert.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to populate " + count + " tasks", e);
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static long pastOffset(Random random) {
+        double days = -60 * Math.log(1 - random.nextDouble());
+        return (long) (Math.min(days, 365) * DAY_MS);
+    }
+
+    private static int priority(Random random) {
+        int roll = random.nextInt(4);
+        return roll == 0 ? 1 : (roll == 3 ? 3 : 2);
+    }
+}
@@ -0,0 +1,101 @@
+package com.tannazetm.dailytasktracker;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * TaskMutationQueue: coalescing of queued task updates by id.
+ */
+public class TaskMutationQueueTest {
+
+    private static final TaskRepository.OnTaskUpdatedCallback NO_OP = new TaskRepository.OnTaskUpdatedCallback() {
+        @Override
+        public void onTaskUpdated(Task task) {
+        }
+
+        @Override
+        public void onTaskUpdateFailed() {
+        }
+    };
+
+    private final TaskMutationQueue queue = new TaskMutationQueue();
+
+    @Test
+    public void enqueue_reportsWhenAFlushIsNeeded() {
+        assertTrue(queue.enqueue(task(1, false), null, Collections.<TaskSession>emptyList(), null));
+        assertFalse(queue.enqueue(task(2, false), null, Collections.<TaskSession>emptyList(), null));
+
+        queue.drain();
+
+        assertTrue(queue.isEmpty());
+        assertTrue(queue.enqueue(task(1, true), null, Collections.<TaskSession>emptyList(), null));
+    }
+
+    @Test
+    public void enqueue_coalescesUpdatesToTheSameTask() {
+        Task before = task(1, false);
+        TaskSession first = new TaskSession(1, 0, 1000);
+        TaskSession second = new TaskSession(1, 2000, 3000);
+
+        queue.enqueue(task(1, true), before, Collections.singletonList(first), NO_OP);
+        queue.enqueue(task(2, true), task(2, false), Collections.<TaskSession>emptyList(), null);
+        queue.enqueue(task(1, false), task(1, true), Collections.singletonList(second), NO_OP);
+
+        List<TaskMutationQueue.Mutation> batch = queue.drain();
+        assertEquals(2, batch.size());
+        TaskMutationQueue.Mutation mutation = batch.get(0);
+        assertEquals(1, mutation.getTask().getId());
+        assertFalse(mutation.getTask().isCompleted());
+        assertSame(before, mutation.getPrevious());
+        assertEquals(Arrays.asList(first, second), mutation.getSessions());
+        assertEquals(2, mutation.getCallbacks().size());
+        assertEquals(2, batch.get(1).getTask().getId());
+    }
+
+    @Test
+    public void enqueue_keepsACopy() {
+        Task task = task(1, false);
+        queue.enqueue(task, null, Collections.<TaskSession>emptyList(), null);
+        task.setCompleted(true);
+
+        assertFalse(queue.pendingTasks().iterator().next().isCompleted());
+    }
+
+    @Test
+    public void changes_areTakenAgainstTheStateBeforeTheFirstUpdate() {
+        Task before = task(1, false);
+        Task started = new Task(before);
+        started.startTask(1000);
+        queue.enqueue(started, before, Collections.<TaskSession>emptyList(), null);
+        Task done = new Task(started);
+        done.setCompleted(true);
+        queue.enqueue(done, started, Collections.<TaskSession>emptyList(), null);
+        queue.enqueue(task(2, true), null, Collections.<TaskSession>emptyList(), null);
+
+        List<TaskMutationQueue.Mutation> batch = queue.drain();
+        // Started and stopped again within the batch: the totals changed, the start didn't
+        assertEquals(TaskChange.COMPLETION | TaskChange.TRACKING_TOTALS, batch.get(0).getChanges());
+        assertEquals(TaskChange.ALL, batch.get(1).getChanges());
+    }
+
+    @Test
+    public void writeAllInFull_afterAFailedBatch() {
+        Task before = task(1, false);
+        queue.enqueue(task(1, true), before, Collections.<TaskSession>emptyList(), null);
+        queue.writeAllInFull();
+
+        assertEquals(TaskChange.ALL, queue.drain().get(0).getChanges());
+    }
+
+    private static Task task(int id, boolean completed) {
+        Task task = new Task("Task " + id);
+        task.setId(id);
+        task.setCompleted(completed);
+        return task;
+    }
+}
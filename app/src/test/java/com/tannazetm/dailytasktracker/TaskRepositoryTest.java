@@ -0,0 +1,106 @@
+package com.tannazetm.dailytasktracker;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * TaskRepository on Robolectric with an in-memory database, with the index threshold below the
+ * table size so reads take the SQL path.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TaskRepositoryTest {
+
+    private TaskDatabase database;
+    private TaskRepository repository;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        database = Room.inMemoryDatabaseBuilder(context, TaskDatabase.class)
+                .allowMainThreadQueries()
+                .addCallback(TaskDatabase.STATS_TRIGGERS)
+                .build();
+        repository = new TaskRepository(database, DatabaseExecutors.getInstance(), 0);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void queuedUpdate_isVisibleWithoutTheIndex() throws Exception {
+        Task task = new Task("Write report", "", System.currentTimeMillis() + 60_000, 30);
+        task.setId((int) database.taskDao().insertTask(task));
+        TaskFilter all = new TaskFilter(null, TaskFilter.STATUS_ALL, -1, System.currentTimeMillis());
+
+        CountDownLatch written = new CountDownLatch(1);
+        task.setCompleted(true);
+        repository.updateTask(task, new TaskRepository.OnTaskUpdatedCallback() {
+            @Override
+            public void onTaskUpdated(Task updated) {
+                written.countDown();
+            }
+
+            @Override
+            public void onTaskUpdateFailed() {
+            }
+        });
+
+        // Still queued: SQLite has the old row, the list shows the update
+        assertFalse(database.taskDao().getTaskById(task.getId()).isCompleted());
+        List<Task> tasks = repository.getTasks(all);
+        assertEquals(1, tasks.size());
+        assertTrue(tasks.get(0).isCompleted());
+        assertTrue(repository.getPage(all, null, 10).get(0).isCompleted());
+
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        assertTrue(database.taskDao().getTaskById(task.getId()).isCompleted());
+    }
+
+    @Test
+    public void queuedStar_isHeldToTheLimit() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            Task starred = new Task("Starred " + i, "", System.currentTimeMillis() + 60_000, 30);
+            starred.setImmediate(true);
+            database.taskDao().insertTask(starred);
+        }
+        Task task = new Task("One more", "", System.currentTimeMillis() + 60_000, 30);
+        task.setId((int) database.taskDao().insertTask(task));
+
+        CountDownLatch failed = new CountDownLatch(1);
+        task.setImmediate(true);
+        task.setTitle("One more, renamed");
+        repository.updateTask(task, new TaskRepository.OnTaskUpdatedCallback() {
+            @Override
+            public void onTaskUpdated(Task updated) {
+            }
+
+            @Override
+            public void onTaskUpdateFailed() {
+                failed.countDown();
+            }
+        });
+
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        // The rest of the update is written, the star isn't
+        Task saved = database.taskDao().getTaskById(task.getId());
+        assertEquals("One more, renamed", saved.getTitle());
+        assertFalse(saved.isImmediate());
+        assertEquals(5, database.taskDao().getImmediateTaskCount());
+    }
+}
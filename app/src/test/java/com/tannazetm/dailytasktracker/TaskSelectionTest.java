@@ -0,0 +1,58 @@
+package com.tannazetm.dailytasktracker;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * TaskSelection: tapped ids, and "all matching a filter" with ids tapped off.
+ */
+public class TaskSelectionTest {
+
+    private static final TaskFilter FILTER = new TaskFilter(null, TaskFilter.STATUS_ACTIVE, -1, 0L);
+
+    private final TaskSelection selection = new TaskSelection();
+
+    @Test
+    public void toggle_addsAndRemovesIds() {
+        assertTrue(selection.isEmpty());
+
+        selection.toggle(1);
+        selection.toggle(2);
+        selection.toggle(1);
+
+        assertFalse(selection.contains(1));
+        assertTrue(selection.contains(2));
+        assertEquals(new HashSet<>(Arrays.asList(2)), selection.getIds());
+    }
+
+    @Test
+    public void selectAll_containsEverythingButTheExcludedIds() {
+        selection.toggle(1);
+        selection.selectAll(FILTER);
+        selection.toggle(3);
+
+        assertTrue(selection.isAllMatching());
+        assertSame(FILTER, selection.getFilter());
+        assertTrue(selection.contains(1));
+        assertFalse(selection.contains(3));
+        assertFalse(selection.isEmpty());
+
+        selection.clear();
+        assertTrue(selection.isEmpty());
+        assertFalse(selection.contains(1));
+    }
+
+    @Test
+    public void copy_isIndependent() {
+        selection.toggle(1);
+        TaskSelection copy = selection.copy();
+        selection.toggle(2);
+
+        assertFalse(copy.contains(2));
+        assertTrue(copy.contains(1));
+    }
+}
@@ -0,0 +1,201 @@
+package com.tannazetm.dailytasktracker;
+
+import android.app.Notification;
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ServiceController;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * TrackingService and its checkpointing, on Robolectric with an in-memory database and a
+ * hand-driven TrackingClock.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TrackingServiceTest {
+
+    private static final long SECOND_MS = 1000L;
+
+    private Context context;
+    private TaskDatabase database;
+    private long now;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        database = Room.inMemoryDatabaseBuilder(context, TaskDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        // Midday, so sessions never cross midnight
+        now = DayRange.today().getStart() + 12 * 60 * 60 * SECOND_MS;
+        TrackingClock.set(new TrackingClock() {
+            @Override
+            public long now() {
+                return now;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        TrackingClock.set(null);
+        database.close();
+    }
+
+    @Test
+    public void checkpoint_foldsRunningSessionsIntoTotals() {
+        int trackedId = insertTracking("Tracked", now);
+        int idleId = (int) database.taskDao().insertTask(new Task("Idle"));
+        TrackingCheckpointer checkpointer = new TrackingCheckpointer(database);
+
+        now += 90 * SECOND_MS;
+        assertEquals(1, checkpointer.checkpoint(now));
+        Task tracked = database.taskDao().getTaskById(trackedId);
+        assertEquals(90 * SECOND_MS, tracked.getTrackedMillis());
+        assertEquals(1, tracked.getActualDuration());
+        assertEquals(now, tracked.getStartTime());
+        assertTrue(tracked.isInProgress());
+
+        now += 30 * SECOND_MS;
+        checkpointer.checkpoint(now);
+        tracked = database.taskDao().getTaskById(trackedId);
+        assertEquals(120 * SECOND_MS, tracked.getTrackedMillis());
+        assertEquals(2, tracked.getActualDuration());
+
+        // Each checkpoint logged the stretch since the previous one
+        assertEquals(2, database.taskSessionDao().getSessionsForTask(trackedId).size());
+        assertEquals(120 * SECOND_MS, database.taskSessionDao().getTrackedMillisForTask(trackedId));
+        assertEquals(0, database.taskDao().getTaskById(idleId).getTrackedMillis());
+    }
+
+    @Test
+    public void checkpoint_thenStop_countsEachMillisecondOnce() {
+        int id = insertTracking("Tracked", now);
+        now += 45 * SECOND_MS;
+        new TrackingCheckpointer(database).checkpoint(now);
+
+        // Stopped from a fresh copy, as the Home list holds after the checkpoint invalidation
+        Task task = database.taskDao().getTaskById(id);
+        now += 30 * SECOND_MS;
+        task.stopTask();
+
+        assertEquals(75 * SECOND_MS, task.getTrackedMillis());
+        assertEquals(1, task.getActualDuration());
+        assertEquals(30 * SECOND_MS, task.takeFinishedSessions().get(0).getDurationMillis());
+    }
+
+    @Test
+    public void checkpoint_thenStopCopyReadBefore_countsEachMillisecondOnce() throws Exception {
+        int id = insertTracking("Tracked", now);
+        // Read by the Home list before the checkpoint, stopped after it
+        Task stale = database.taskDao().getTaskById(id);
+        now += 45 * SECOND_MS;
+        new TrackingCheckpointer(database).checkpoint(now);
+
+        now += 30 * SECOND_MS;
+        stale.stopTask();
+        update(stale);
+
+        Task stored = database.taskDao().getTaskById(id);
+        assertFalse(stored.isInProgress());
+        assertEquals(75 * SECOND_MS, stored.getTrackedMillis());
+        assertEquals(1, stored.getActualDuration());
+        assertEquals(75 * SECOND_MS, database.taskSessionDao().getTrackedMillisForTask(id));
+        assertEquals(2, database.taskSessionDao().getSessionsForTask(id).size());
+    }
+
+    @Test
+    public void checkpoint_thenEditCopyReadBefore_keepsCheckpointedTotals() throws Exception {
+        int id = insertTracking("Tracked", now);
+        Task stale = database.taskDao().getTaskById(id);
+        now += 45 * SECOND_MS;
+        new TrackingCheckpointer(database).checkpoint(now);
+
+        // A full-row edit must not put the old startTime and totals back
+        stale.setTitle("Renamed");
+        update(stale);
+        Task stored = database.taskDao().getTaskById(id);
+        assertEquals("Renamed", stored.getTitle());
+        assertEquals(now, stored.getStartTime());
+        assertEquals(45 * SECOND_MS, stored.getTrackedMillis());
+
+        now += 30 * SECOND_MS;
+        new TrackingCheckpointer(database).checkpoint(now);
+        assertEquals(75 * SECOND_MS, database.taskSessionDao().getTrackedMillisForTask(id));
+    }
+
+    @Test
+    public void notification_showsTotalTrackedTimeWithChronometer() {
+        Task task = new Task("Write report");
+        task.setTrackedMillis(10 * 60 * SECOND_MS);
+        task.startTask();
+        now += 5 * 60 * SECOND_MS;
+        long wallNow = 1_700_000_000_000L;
+
+        Notification notification = TrackingService.buildNotification(context,
+                Collections.singletonList(task), wallNow);
+
+        assertEquals("Write report", notification.extras.getString(Notification.EXTRA_TITLE));
+        assertEquals(wallNow - 15 * 60 * SECOND_MS, notification.when);
+        assertTrue(notification.extras.getBoolean(Notification.EXTRA_SHOW_CHRONOMETER));
+        assertTrue((notification.flags & Notification.FLAG_ONGOING_EVENT) != 0);
+    }
+
+    @Test
+    public void notification_countsSeveralTasks() {
+        List<Task> tasks = Arrays.asList(new Task("First"), new Task("Second"));
+        Notification notification = TrackingService.buildNotification(context, tasks, now);
+
+        assertEquals("Tracking 2 tasks", notification.extras.getString(Notification.EXTRA_TITLE));
+        assertEquals("First", notification.extras.getString(Notification.EXTRA_TEXT));
+    }
+
+    @Test
+    public void service_goesForegroundOnCreate() {
+        ServiceController<TrackingService> controller = Robolectric.buildService(TrackingService.class).create();
+
+        Notification notification = shadowOf(controller.get()).getLastForegroundNotification();
+        assertNotNull(notification);
+        assertEquals(TrackingService.CHANNEL_ID, notification.getChannelId());
+        controller.destroy();
+    }
+
+    // Through the repository's write-behind flush, waiting for it to finish
+    private void update(Task task) throws InterruptedException {
+        TaskRepository repository = new TaskRepository(database, DatabaseExecutors.getInstance(), 0);
+        CountDownLatch written = new CountDownLatch(1);
+        repository.updateTask(task, new TaskRepository.OnTaskUpdatedCallback() {
+            @Override
+            public void onTaskUpdated(Task updated) {
+                written.countDown();
+            }
+
+            @Override
+            public void onTaskUpdateFailed() {
+            }
+        });
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+    }
+
+    private int insertTracking(String title, long startTime) {
+        Task task = new Task(title);
+        task.startTask(startTime);
+        return (int) database.taskDao().insertTask(task);
+    }
+}
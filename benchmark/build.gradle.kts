@@ -0,0 +1,55 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+// JMH microbenchmarks for the task list rendering path, run on the desktop JVM:
+//   ./gradlew :benchmark:jmh
+//   ./gradlew :benchmark:jmh -PjmhIncludes=TaskDiffBenchmark
+// Results are written to benchmark/build/results/jmh/results.json.
+//
+// The model and formatting code comes from :core. :app is an Android application module and
+// can't be depended on, so TaskDiffCallback is compiled straight from its source tree.
+val appSources = "../app/src/main/java"
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+sourceSets {
+    main {
+        java {
+            srcDir(appSources)
+            include("com/tannazetm/dailytasktracker/TaskDiffCallback.java")
+        }
+    }
+}
+
+// DiffUtil ships inside the recyclerview AAR; its classes.jar is plain JVM bytecode
+val recyclerViewAar: Configuration by configurations.creating { isTransitive = false }
+val extractRecyclerView by tasks.registering(Copy::class) {
+    from({ recyclerViewAar.map { zipTree(it) } }) { include("classes.jar") }
+    into(layout.buildDirectory.dir("aar/recyclerview"))
+}
+
+dependencies {
+    implementation(project(":core"))
+    compileOnly("androidx.annotation:annotation:1.7.1")
+
+    recyclerViewAar("androidx.recyclerview:recyclerview:1.3.2@aar")
+    implementation(files(layout.buildDirectory.file("aar/recyclerview/classes.jar"))
+        .builtBy(extractRecyclerView))
+
+    jmh(libs.jmh.core)
+    jmhAnnotationProcessor(libs.jmh.generator.annprocess)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.set(listOf(it)) }
+}
@@ -0,0 +1,139 @@
+package com.tannazetm.dailytasktracker;
+
+import androidx.recyclerview.widget.DiffUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TaskDiffCallback on large lists, as ListAdapter runs it after every re-query: DiffUtil over the
+ * old and new list (always distinct Task objects) and the payload flags for every row.
+ *
+ * Changes between the two lists:
+ * - "requery": same content, what a write to some other row produces
+ * - "tick": 1% of rows with a new tracked time, like a tracking checkpoint
+ * - "edit": one row inserted at the top, one removed and 1% rescheduled in place
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskDiffBenchmark {
+
+    private static final long HOUR_MS = 60 * 60 * 1000L;
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    @Param({"requery", "tick", "edit"})
+    public String change;
+
+    private final TaskDiffCallback itemCallback = new TaskDiffCallback();
+    private List<Task> oldList;
+    private List<Task> newList;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        long start = System.currentTimeMillis() - size / 2 * HOUR_MS;
+        oldList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = new Task("Task " + i, i % 3 == 0 ? "Details for " + i : "", start + i * HOUR_MS,
+                    15 + random.nextInt(22) * 5);
+            task.setId(i + 1);
+            task.setPriority(1 + random.nextInt(3));
+            task.setCompleted(random.nextInt(4) == 0);
+            oldList.add(task);
+        }
+
+        newList = new ArrayList<>(size + 1);
+        for (Task task : oldList) {
+            newList.add(copy(task));
+        }
+        if (change.equals("tick")) {
+            for (int i = 0; i < size; i += 100) {
+                Task task = newList.get(i);
+                task.setTrackedMillis(task.getTrackedMillis() + 60 * 1000L);
+                task.setActualDuration(task.getActualDuration() + 1);
+            }
+        } else if (change.equals("edit")) {
+            for (int i = 50; i < size; i += 100) {
+                Task task = newList.get(i);
+                task.setDueTimestamp(task.getDueTimestamp() + 5 * 60 * 1000L);
+            }
+            newList.remove(size / 2);
+            Task inserted = new Task("New task", "", start - HOUR_MS, 30);
+            inserted.setId(size + 1);
+            newList.add(0, inserted);
+        }
+    }
+
+    @Benchmark
+    public DiffUtil.DiffResult calculateDiff() {
+        return DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            // Mirrors the Callback AsyncListDiffer wraps around an ItemCallback
+            @Override
+            public int getOldListSize() {
+                return oldList.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newList.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return itemCallback.areItemsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                return itemCallback.areContentsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+            }
+
+            @Override
+            public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+                return itemCallback.getChangePayload(oldList.get(oldItemPosition), newList.get(newItemPosition));
+            }
+        });
+    }
+
+    // Position-aligned flags for every row, the per-item work under the diff
+    @Benchmark
+    public int changesBetween() {
+        int changes = 0;
+        int count = Math.min(oldList.size(), newList.size());
+        for (int i = 0; i < count; i++) {
+            changes |= TaskDiffCallback.changesBetween(oldList.get(i), newList.get(i));
+        }
+        return changes;
+    }
+
+    // A fresh object with the same row content, as Room returns it on the next query
+    private static Task copy(Task task) {
+        Task copy = new Task(task.getTitle(), task.getDescription(), task.getDueTimestamp(),
+                task.getEstimatedDuration());
+        copy.setId(task.getId());
+        copy.setCreatedTimestamp(task.getCreatedTimestamp());
+        copy.setScheduledDate(task.getScheduledDate());
+        copy.setActualDuration(task.getActualDuration());
+        copy.setTrackedMillis(task.getTrackedMillis());
+        copy.setCompleted(task.isCompleted());
+        copy.setImmediate(task.isImmediate());
+        copy.setPriority(task.getPriority());
+        copy.setColorTag(task.getColorTag());
+        copy.setCategory(task.getCategory());
+        return copy;
+    }
+}
@@ -0,0 +1,119 @@
+package com.tannazetm.dailytasktracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the text shown on a task row: the Task formatting getters (one
+ * SimpleDateFormat per call), the row's cached due-time and duration formatting
+ * (TaskTextFormatter), and the pre-cache row formatter kept as a reference point.
+ * Due times spread over a week around now, so every "Today"/"Tomorrow"/date branch is hit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TaskFormattingBenchmark {
+
+    private static final int TASK_COUNT = 1024; // power of two, cycled with a mask
+    private static final long HOUR_MS = 60 * 60 * 1000L;
+
+    private Task[] tasks;
+    private TaskTextFormatter formatter;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        tasks = new Task[TASK_COUNT];
+        for (int i = 0; i < TASK_COUNT; i++) {
+            long due = now + (random.nextInt(7 * 24) - 3 * 24) * HOUR_MS;
+            Task task = new Task("Task " + i, "", due, 15 + random.nextInt(22) * 5);
+            task.setActualDuration(random.nextInt(4) == 0 ? 0 : random.nextInt(180));
+            tasks[i] = task;
+        }
+        formatter = new TaskTextFormatter();
+    }
+
+    private Task nextTask() {
+        return tasks[next++ & (TASK_COUNT - 1)];
+    }
+
+    @Benchmark
+    public String taskFormattedDueTime() {
+        return nextTask().getFormattedDueTime();
+    }
+
+    @Benchmark
+    public String taskFormattedCreatedTime() {
+        return nextTask().getFormattedCreatedTime();
+    }
+
+    @Benchmark
+    public String taskFormattedScheduledDate() {
+        return nextTask().getFormattedScheduledDate();
+    }
+
+    @Benchmark
+    public String taskFormattedDuration() {
+        return nextTask().getFormattedDuration();
+    }
+
+    @Benchmark
+    public String taskFormattedActualDuration() {
+        return nextTask().getFormattedActualDuration();
+    }
+
+    @Benchmark
+    public String rowDueTime() {
+        return formatter.formatDueTime(nextTask().getDueTimestamp());
+    }
+
+    @Benchmark
+    public String rowDueTimeUncached() {
+        return formatDueTimeUncached(nextTask().getDueTimestamp());
+    }
+
+    @Benchmark
+    public String rowDurationShort() {
+        return TaskTextFormatter.formatDurationShort(nextTask().getEstimatedDuration());
+    }
+
+    // TaskViewHolder.formatDueTime before TaskRenderCache: three Calendars and one or two
+    // SimpleDateFormats per bind
+    private static String formatDueTimeUncached(long timestamp) {
+        Calendar taskCal = Calendar.getInstance();
+        taskCal.setTimeInMillis(timestamp);
+
+        Calendar today = Calendar.getInstance();
+        Calendar tomorrow = Calendar.getInstance();
+        tomorrow.add(Calendar.DAY_OF_YEAR, 1);
+
+        SimpleDateFormat timeFormat = new SimpleDateFormat("h:mm a", Locale.getDefault());
+
+        if (isSameDay(taskCal, today)) {
+            return "Today " + timeFormat.format(taskCal.getTime());
+        } else if (isSameDay(taskCal, tomorrow)) {
+            return "Tomorrow " + timeFormat.format(taskCal.getTime());
+        } else {
+            SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, h:mm a", Locale.getDefault());
+            return dateFormat.format(taskCal.getTime());
+        }
+    }
+
+    private static boolean isSameDay(Calendar cal1, Calendar cal2) {
+        return cal1.get(Calendar.YEAR) == cal2.get(Calendar.YEAR) &&
+                cal1.get(Calendar.DAY_OF_YEAR) == cal2.get(Calendar.DAY_OF_YEAR);
+    }
+}
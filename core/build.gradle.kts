@@ -0,0 +1,19 @@
+plugins {
+    `java-library`
+}
+
+// Domain model and logic with no Android dependencies: Task and its time accounting, filter
+// specs, statistics and label formatting. Used by :app and :benchmark; unit tests run on the
+// plain JVM with ./gradlew :core:test.
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+dependencies {
+    // Task and TaskSession keep their Room table mapping. room-common is annotations only (class
+    // retention), so nothing of Room is needed at runtime; consumers see the annotations too.
+    compileOnlyApi("androidx.room:room-common:2.6.1")
+    testImplementation(libs.junit)
+}
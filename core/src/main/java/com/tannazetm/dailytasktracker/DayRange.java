@@ -0,0 +1,72 @@
+package com.tannazetm.dailytasktracker;
+
+import java.util.Calendar;
+
+// Local-time day boundaries for the date filters. Queries compare the raw dueTimestamp
+// column against these bounds (instead of wrapping it in date()), so SQLite can range-scan
+// the dueTimestamp indexes and "today" follows the device time zone rather than UTC.
+public final class DayRange {
+    private final long start; // first millisecond of the range
+    private final long end;   // last millisecond of the range (inclusive, for BETWEEN)
+
+    private DayRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public static DayRange today() {
+        return days(System.currentTimeMillis(), 0, 1);
+    }
+
+    public static DayRange tomorrow() {
+        return days(System.currentTimeMillis(), 1, 1);
+    }
+
+    // Today plus the following seven days, matching the "This Week" chip
+    public static DayRange thisWeek() {
+        return days(System.currentTimeMillis(), 0, 8);
+    }
+
+    // The whole local day containing the given instant
+    public static DayRange dayOf(long millis) {
+        return days(millis, 0, 1);
+    }
+
+    private static DayRange days(long anchorMillis, int offsetDays, int dayCount) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(anchorMillis);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        cal.add(Calendar.DAY_OF_YEAR, offsetDays);
+        long start = cal.getTimeInMillis();
+
+        // Calendar arithmetic keeps DST days at their real 23/25 hour length
+        cal.add(Calendar.DAY_OF_YEAR, dayCount);
+        return new DayRange(start, cal.getTimeInMillis() - 1);
+    }
+
+    public long getStart() { return start; }
+
+    public long getEnd() { return end; }
+
+    public boolean contains(long millis) {
+        return millis >= start && millis <= end;
+    }
+
+    // The instant on this range's first day with the same local time of day as millis, e.g. for
+    // moving a task onto another day. Not start plus millis modulo 24 h: days around a DST
+    // change are 23 or 25 hours long.
+    public long atTimeOf(long millis) {
+        Calendar time = Calendar.getInstance();
+        time.setTimeInMillis(millis);
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(start);
+        cal.set(Calendar.HOUR_OF_DAY, time.get(Calendar.HOUR_OF_DAY));
+        cal.set(Calendar.MINUTE, time.get(Calendar.MINUTE));
+        cal.set(Calendar.SECOND, time.get(Calendar.SECOND));
+        cal.set(Calendar.MILLISECOND, time.get(Calendar.MILLISECOND));
+        return cal.getTimeInMillis();
+    }
+}
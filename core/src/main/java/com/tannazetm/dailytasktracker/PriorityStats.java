@@ -0,0 +1,10 @@
+package com.tannazetm.dailytasktracker;
+
+// Aggregates for the tasks of one priority (or of all priorities, see TaskStatsDao.getTotals())
+public class PriorityStats {
+    public int priority;
+    public int taskCount;
+    public int completedCount;
+    // Tracked minutes, or the estimate for completed tasks that were never tracked
+    public int minutes;
+}
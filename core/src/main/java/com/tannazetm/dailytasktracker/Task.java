@@ -1,12 +1,44 @@
 package com.tannazetm.dailytasktracker;
 
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 
-@Entity(tableName = "tasks")
+// Index set is designed around the TaskDao filter paths: every list query resolves to an
+// index SEARCH whose column order also satisfies the ORDER BY, so no temp B-tree sort is needed.
+// Keep TaskDatabase.MIGRATION_1_2 in sync when changing these.
+@Entity(tableName = "tasks",
+        indices = {
+                // Status + default list order (active lists, immediate count)
+                @Index(name = "index_tasks_status_immediate_due",
+                        value = {"isCompleted", "isImmediate", "dueTimestamp"},
+                        orders = {Index.Order.ASC, Index.Order.DESC, Index.Order.ASC}),
+                // Status + due (overdue, completed lists, all tasks, completed counts)
+                @Index(name = "index_tasks_status_due",
+                        value = {"isCompleted", "dueTimestamp"}),
+                // Status + priority + default list order
+                @Index(name = "index_tasks_status_priority_immediate_due",
+                        value = {"isCompleted", "priority", "isImmediate", "dueTimestamp"},
+                        orders = {Index.Order.ASC, Index.Order.ASC, Index.Order.DESC, Index.Order.ASC}),
+                // Priority + status + due (priority lists, overdue/completed by priority)
+                @Index(name = "index_tasks_priority_status_due",
+                        value = {"priority", "isCompleted", "dueTimestamp"}),
+                // Date range across all statuses
+                @Index(name = "index_tasks_immediate_due",
+                        value = {"isImmediate", "dueTimestamp"},
+                        orders = {Index.Order.DESC, Index.Order.ASC}),
+                // Date range + priority across all statuses
+                @Index(name = "index_tasks_priority_immediate_due",
+                        value = {"priority", "isImmediate", "dueTimestamp"},
+                        orders = {Index.Order.ASC, Index.Order.DESC, Index.Order.ASC})
+        })
 public class Task {
     @PrimaryKey(autoGenerate = true)
     private int id;
@@ -20,6 +52,9 @@ public class Task {
     private long endTime;
     private int estimatedDuration; // Duration in minutes
     private int actualDuration; // Accumulated actual duration in minutes
+    // Exact accumulated duration; actualDuration follows it in whole minutes (see stopTask)
+    @ColumnInfo(defaultValue = "0")
+    private long trackedMillis;
     private boolean isCompleted;
     private boolean isImmediate;
     private boolean isInProgress;
@@ -27,6 +62,12 @@ public class Task {
     private String category;
     private String colorTag;
 
+    // Last session closed by stopTask() that hasn't been logged to task_sessions yet
+    @Ignore
+    private long finishedSessionStart;
+    @Ignore
+    private long finishedSessionEnd;
+
     // Constructor for new tasks
     public Task(String title, String description, long dueTimestamp, int estimatedDuration) {
         this.title = title;
@@ -51,6 +92,28 @@ public class Task {
         this(title, "", System.currentTimeMillis() + (24 * 60 * 60 * 1000), 30);
     }
 
+    // Copy of every stored column (not the pending finished session)
+    @Ignore
+    public Task(Task other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.description = other.description;
+        this.createdTimestamp = other.createdTimestamp;
+        this.dueTimestamp = other.dueTimestamp;
+        this.scheduledDate = other.scheduledDate;
+        this.startTime = other.startTime;
+        this.endTime = other.endTime;
+        this.estimatedDuration = other.estimatedDuration;
+        this.actualDuration = other.actualDuration;
+        this.trackedMillis = other.trackedMillis;
+        this.isCompleted = other.isCompleted;
+        this.isImmediate = other.isImmediate;
+        this.isInProgress = other.isInProgress;
+        this.priority = other.priority;
+        this.category = other.category;
+        this.colorTag = other.colorTag;
+    }
+
     // Empty constructor for Room
     public Task() {
         this.createdTimestamp = System.currentTimeMillis();
@@ -60,34 +123,67 @@ public class Task {
 
     // Start tracking time (or resume)
     public void startTask() {
-        this.startTime = System.currentTimeMillis();
+        startTask(TrackingClock.get().now());
+    }
+
+    public void startTask(long now) {
+        this.startTime = now;
         this.isInProgress = true;
     }
 
     // Stop tracking time and accumulate duration
     public void stopTask() {
+        stopTask(TrackingClock.get().now());
+    }
+
+    // Sessions add up in milliseconds; actualDuration gains the whole minutes the total crossed,
+    // so two 40-second sessions make one minute instead of two times zero
+    public void stopTask(long now) {
         if (startTime > 0 && isInProgress) {
-            this.endTime = System.currentTimeMillis();
-            // Add the elapsed time to accumulated duration
-            int sessionMinutes = (int) ((endTime - startTime) / 60000);
-            this.actualDuration += sessionMinutes;
+            this.endTime = Math.max(now, startTime);
+            long before = trackedMillis;
+            this.trackedMillis += endTime - startTime;
+            this.actualDuration += (int) (trackedMillis / 60000 - before / 60000);
+            // The exact interval, sub-minute sessions included, goes to the session log
+            this.finishedSessionStart = startTime;
+            this.finishedSessionEnd = endTime;
             this.isInProgress = false;
             this.startTime = 0; // Reset for next session
         }
     }
 
+    // Hands the session closed by the last stopTask() to the caller (once) for TaskSessionDao
+    public List<TaskSession> takeFinishedSessions() {
+        if (finishedSessionEnd <= finishedSessionStart) {
+            return Collections.emptyList();
+        }
+        List<TaskSession> sessions = TaskSession.split(id, finishedSessionStart, finishedSessionEnd);
+        finishedSessionStart = 0;
+        finishedSessionEnd = 0;
+        return sessions;
+    }
+
     // Get current session elapsed time (for live tracking display)
-    public int getCurrentSessionMinutes() {
+    public long getCurrentSessionMillis(long now) {
         if (isInProgress && startTime > 0) {
-            long elapsed = System.currentTimeMillis() - startTime;
-            return (int) (elapsed / 60000);
+            return Math.max(0, now - startTime);
         }
         return 0;
     }
 
-    // Get total time including current session
+    public int getCurrentSessionMinutes() {
+        return (int) (getCurrentSessionMillis(TrackingClock.get().now()) / 60000);
+    }
+
+    // Get total time including current session; the running session continues the stored
+    // sub-minute remainder, exactly as stopTask would count it
+    public int getTotalTrackedMinutes(long now) {
+        long pending = trackedMillis % 60000 + getCurrentSessionMillis(now);
+        return actualDuration + (int) (pending / 60000);
+    }
+
     public int getTotalTrackedMinutes() {
-        return actualDuration + getCurrentSessionMinutes();
+        return getTotalTrackedMinutes(TrackingClock.get().now());
     }
 
     // Get formatted duration
@@ -137,10 +233,14 @@ public class Task {
 
     // Progress percentage based on time (can go over 100%)
     public int getProgress() {
+        return getProgress(TrackingClock.get().now());
+    }
+
+    public int getProgress(long now) {
         if (isCompleted) return 100;
         if (!isInProgress || startTime == 0) return 0;
 
-        int totalMinutes = getTotalTrackedMinutes();
+        int totalMinutes = getTotalTrackedMinutes(now);
         // Return actual percentage even if over 100%
         return (totalMinutes * 100) / Math.max(1, estimatedDuration);
     }
@@ -191,6 +291,9 @@ public class Task {
         this.actualDuration = actualDuration;
     }
 
+    public long getTrackedMillis() { return trackedMillis; }
+    public void setTrackedMillis(long trackedMillis) { this.trackedMillis = trackedMillis; }
+
     public boolean isCompleted() { return isCompleted; }
     public void setCompleted(boolean completed) {
         isCompleted = completed;
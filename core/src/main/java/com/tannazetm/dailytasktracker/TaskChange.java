@@ -0,0 +1,53 @@
+package com.tannazetm.dailytasktracker;
+
+import java.util.Objects;
+
+// Which groups of stored columns differ between two states of a task. Each group but OTHER has
+// a TaskDao update that writes only its columns (setCompleted, setImmediate, startTracking,
+// stopTracking, reschedule), so a checkbox tap or play/pause doesn't rewrite the whole row.
+public final class TaskChange {
+
+    public static final int COMPLETION = 1;            // isCompleted
+    public static final int IMMEDIATE = 1 << 1;        // isImmediate
+    public static final int TRACKING_START = 1 << 2;   // isInProgress, startTime
+    public static final int TRACKING_TOTALS = 1 << 3;  // endTime, trackedMillis, actualDuration
+    public static final int SCHEDULE = 1 << 4;         // dueTimestamp, scheduledDate
+    public static final int OTHER = 1 << 5;            // text, estimate, priority, category, color
+    public static final int ALL = (1 << 6) - 1;
+
+    private TaskChange() {
+    }
+
+    // Flags for every group whose columns differ; 0 when the stored row would be the same
+    public static int between(Task before, Task after) {
+        int changes = 0;
+        if (before.isCompleted() != after.isCompleted()) {
+            changes |= COMPLETION;
+        }
+        if (before.isImmediate() != after.isImmediate()) {
+            changes |= IMMEDIATE;
+        }
+        if (before.isInProgress() != after.isInProgress() || before.getStartTime() != after.getStartTime()) {
+            changes |= TRACKING_START;
+        }
+        if (before.getEndTime() != after.getEndTime()
+                || before.getTrackedMillis() != after.getTrackedMillis()
+                || before.getActualDuration() != after.getActualDuration()) {
+            changes |= TRACKING_TOTALS;
+        }
+        if (before.getDueTimestamp() != after.getDueTimestamp()
+                || before.getScheduledDate() != after.getScheduledDate()) {
+            changes |= SCHEDULE;
+        }
+        if (!Objects.equals(before.getTitle(), after.getTitle())
+                || !Objects.equals(before.getDescription(), after.getDescription())
+                || before.getCreatedTimestamp() != after.getCreatedTimestamp()
+                || before.getEstimatedDuration() != after.getEstimatedDuration()
+                || before.getPriority() != after.getPriority()
+                || !Objects.equals(before.getCategory(), after.getCategory())
+                || !Objects.equals(before.getColorTag(), after.getColorTag())) {
+            changes |= OTHER;
+        }
+        return changes;
+    }
+}
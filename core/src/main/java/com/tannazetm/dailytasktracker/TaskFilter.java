@@ -0,0 +1,113 @@
+package com.tannazetm.dailytasktracker;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+// Filter specification for the Home task list. Any combination of date range, status set and
+// priority set is turned into a single SQL statement by TaskQueryBuilder.
+public class TaskFilter {
+
+    // Status flags, combine with |. STATUS_ALL means no status restriction.
+    public static final int STATUS_ALL = 0;
+    public static final int STATUS_ACTIVE = 1;
+    public static final int STATUS_COMPLETED = 1 << 1;
+    public static final int STATUS_OVERDUE = 1 << 2;
+
+    // Effective status modes after normalizing the status set (see getMode())
+    public static final int MODE_ALL = 0;
+    public static final int MODE_ACTIVE = 1;
+    public static final int MODE_COMPLETED = 2;
+    public static final int MODE_OVERDUE = 3;
+    public static final int MODE_COMPLETED_OR_OVERDUE = 4;
+
+    private final long startDate; // inclusive, only used when hasDateRange
+    private final long endDate;   // inclusive
+    private final boolean hasDateRange;
+    private final int statuses;
+    private final List<Integer> priorities; // sorted, empty means all
+    private final long currentTime; // reference time for the overdue status
+
+    public TaskFilter(DayRange dateRange, int statuses, Collection<Integer> priorities, long currentTime) {
+        this.hasDateRange = dateRange != null;
+        this.startDate = hasDateRange ? dateRange.getStart() : 0;
+        this.endDate = hasDateRange ? dateRange.getEnd() : 0;
+        this.statuses = statuses;
+        this.priorities = priorities == null
+                ? Collections.<Integer>emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(new TreeSet<>(priorities)));
+        this.currentTime = currentTime;
+    }
+
+    // Single-priority convenience, -1 means all priorities (matches the Home chips)
+    public TaskFilter(DayRange dateRange, int statuses, int priority, long currentTime) {
+        this(dateRange, statuses,
+                priority == -1 ? null : Collections.singletonList(priority), currentTime);
+    }
+
+    public boolean hasDateRange() { return hasDateRange; }
+
+    public long getStartDate() { return startDate; }
+
+    public long getEndDate() { return endDate; }
+
+    public int getStatuses() { return statuses; }
+
+    public List<Integer> getPriorities() { return priorities; }
+
+    public long getCurrentTime() { return currentTime; }
+
+    public int getMode() {
+        boolean active = (statuses & STATUS_ACTIVE) != 0;
+        boolean completed = (statuses & STATUS_COMPLETED) != 0;
+        boolean overdue = (statuses & STATUS_OVERDUE) != 0;
+
+        // Overdue tasks are a subset of active ones
+        if (statuses == STATUS_ALL || (active && completed)) return MODE_ALL;
+        if (active) return MODE_ACTIVE;
+        if (completed && overdue) return MODE_COMPLETED_OR_OVERDUE;
+        if (completed) return MODE_COMPLETED;
+        return MODE_OVERDUE;
+    }
+
+    // Overdue has its own time bound and ignores the date range, like the Home chips always did
+    public boolean usesDateRange() {
+        return hasDateRange && getMode() != MODE_OVERDUE;
+    }
+
+    // Whether the result depends on getCurrentTime()
+    public boolean usesCurrentTime() {
+        int mode = getMode();
+        return mode == MODE_OVERDUE || mode == MODE_COMPLETED_OR_OVERDUE;
+    }
+
+    // The filter behind the Home chips: dateFilter is "today", "tomorrow", "week", "custom"
+    // (customDateRange) or "all", statusFilter a statusFromName() value, priorityFilter -1 for all
+    public static TaskFilter fromChips(String dateFilter, DayRange customDateRange,
+                                       String statusFilter, int priorityFilter, long currentTime) {
+        DayRange range = null;
+        if (dateFilter.equals("today")) {
+            range = DayRange.today();
+        } else if (dateFilter.equals("tomorrow")) {
+            range = DayRange.tomorrow();
+        } else if (dateFilter.equals("week")) {
+            range = DayRange.thisWeek();
+        } else if (dateFilter.equals("custom")) {
+            range = customDateRange;
+        }
+
+        return new TaskFilter(range, statusFromName(statusFilter), priorityFilter, currentTime);
+    }
+
+    // Maps the Home status chip values ("all", "active", "completed", "overdue")
+    public static int statusFromName(String name) {
+        switch (name) {
+            case "active": return STATUS_ACTIVE;
+            case "completed": return STATUS_COMPLETED;
+            case "overdue": return STATUS_OVERDUE;
+            default: return STATUS_ALL;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.tannazetm.dailytasktracker;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+// In-memory copy of the tasks table: tasks by id, plus secondary indexes sorted by (dueTimestamp,
+// id) over all tasks, active and completed tasks, and each priority. query() answers a TaskFilter
+// with the same rows, in the same order, as the SQL TaskQueryBuilder builds for it, and keeps the
+// last results per filter until the next write. The index holds its own copies and hands out
+// copies, so callers are free to modify what they get. Thread-safe.
+public final class TaskIndex {
+
+    private static final int MAX_CACHED_RESULTS = 32;
+
+    private static final Comparator<Task> BY_DUE = (a, b) -> {
+        int byDue = Long.compare(a.getDueTimestamp(), b.getDueTimestamp());
+        return byDue != 0 ? byDue : Integer.compare(a.getId(), b.getId());
+    };
+
+    private final Map<Integer, Task> byId = new HashMap<>();
+    private final NavigableSet<Task> all = new TreeSet<>(BY_DUE);
+    private final NavigableSet<Task> active = new TreeSet<>(BY_DUE);
+    private final NavigableSet<Task> completed = new TreeSet<>(BY_DUE);
+    private final Map<Integer, NavigableSet<Task>> byPriority = new HashMap<>();
+    private final Map<String, Result> results = new LinkedHashMap<String, Result>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Result> eldest) {
+            return size() > MAX_CACHED_RESULTS;
+        }
+    };
+
+    private boolean loaded;
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    // Replaces the contents with a full snapshot of the table. The caller makes sure no write lands
+    // between reading the snapshot and installing it.
+    public synchronized void load(Collection<Task> tasks) {
+        reset();
+        for (Task task : tasks) {
+            add(new Task(task));
+        }
+        loaded = true;
+    }
+
+    // Drops everything; the index is unloaded until the next load()
+    public synchronized void clear() {
+        reset();
+        loaded = false;
+    }
+
+    // Inserts or replaces a task by id
+    public synchronized void put(Task task) {
+        if (loaded) {
+            removeById(task.getId());
+            add(new Task(task));
+        }
+        results.clear();
+    }
+
+    public synchronized void putAll(Collection<Task> tasks) {
+        if (loaded) {
+            for (Task task : tasks) {
+                removeById(task.getId());
+                add(new Task(task));
+            }
+        }
+        results.clear();
+    }
+
+    public synchronized void remove(int id) {
+        if (loaded) {
+            removeById(id);
+        }
+        results.clear();
+    }
+
+    public synchronized Task get(int id) {
+        Task task = byId.get(id);
+        return task != null ? new Task(task) : null;
+    }
+
+    // The tasks matching the filter in TaskQueryBuilder.build() order, or null while not loaded
+    public synchronized List<Task> query(TaskFilter filter) {
+        if (!loaded) return null;
+        return copyOf(resultFor(filter));
+    }
+
+    // Up to limit tasks of query(filter) following the task with id afterId, or from the top when
+    // afterId is null. Null while not loaded or when afterId isn't in the result any more.
+    public synchronized List<Task> page(TaskFilter filter, Integer afterId, int limit) {
+        if (!loaded) return null;
+        List<Task> rows = resultFor(filter);
+        int from = 0;
+        if (afterId != null) {
+            from = indexOf(rows, afterId) + 1;
+            if (from == 0) return null;
+        }
+        return copyOf(rows.subList(from, Math.min(rows.size(), from + limit)));
+    }
+
+    private List<Task> resultFor(TaskFilter filter) {
+        String key = keyOf(filter);
+        long now = filter.getCurrentTime();
+        Result cached = results.get(key);
+        if (cached != null && (!filter.usesCurrentTime()
+                || (now >= cached.computedAt && now <= cached.validUntil))) {
+            return cached.rows;
+        }
+
+        Result result = new Result(compute(filter));
+        if (filter.usesCurrentTime()) {
+            // Valid until the next active task falls overdue
+            Task next = active.ceiling(probe(now, Integer.MIN_VALUE));
+            result.computedAt = now;
+            result.validUntil = next != null ? next.getDueTimestamp() : Long.MAX_VALUE;
+        }
+        results.put(key, result);
+        return result.rows;
+    }
+
+    private List<Task> compute(TaskFilter filter) {
+        int mode = filter.getMode();
+        boolean useDateRange = filter.usesDateRange();
+        List<Integer> priorities = filter.getPriorities();
+        long now = filter.getCurrentTime();
+
+        // Start from the narrowest index that covers the filter
+        NavigableSet<Task> source;
+        if (priorities.size() == 1) {
+            source = byPriority.get(priorities.get(0));
+            if (source == null) return Collections.emptyList();
+        } else if (mode == TaskFilter.MODE_ACTIVE || mode == TaskFilter.MODE_OVERDUE) {
+            source = active;
+        } else if (mode == TaskFilter.MODE_COMPLETED) {
+            source = completed;
+        } else {
+            source = all;
+        }
+        if (useDateRange) {
+            source = source.subSet(probe(filter.getStartDate(), Integer.MIN_VALUE), true,
+                    probe(filter.getEndDate(), Integer.MAX_VALUE), true);
+        } else if (mode == TaskFilter.MODE_OVERDUE) {
+            source = source.headSet(probe(now, Integer.MIN_VALUE), false);
+        }
+        if (mode == TaskFilter.MODE_COMPLETED) {
+            source = source.descendingSet();
+        }
+
+        List<Task> first = new ArrayList<>();
+        List<Task> rest = new ArrayList<>();
+        boolean immediateFirst = mode == TaskFilter.MODE_ACTIVE
+                || mode == TaskFilter.MODE_COMPLETED_OR_OVERDUE
+                || (mode == TaskFilter.MODE_ALL && useDateRange);
+        boolean activeFirst = mode == TaskFilter.MODE_ALL && !useDateRange;
+        for (Task task : source) {
+            if (!matches(task, mode, priorities, now)) continue;
+            if ((immediateFirst && !task.isImmediate()) || (activeFirst && task.isCompleted())) {
+                rest.add(task);
+            } else {
+                first.add(task);
+            }
+        }
+        first.addAll(rest);
+        return first;
+    }
+
+    private static boolean matches(Task task, int mode, List<Integer> priorities, long now) {
+        if (!priorities.isEmpty() && !priorities.contains(task.getPriority())) return false;
+        switch (mode) {
+            case TaskFilter.MODE_ACTIVE:
+                return !task.isCompleted();
+            case TaskFilter.MODE_COMPLETED:
+                return task.isCompleted();
+            case TaskFilter.MODE_OVERDUE:
+                return !task.isCompleted() && task.getDueTimestamp() < now;
+            case TaskFilter.MODE_COMPLETED_OR_OVERDUE:
+                return task.isCompleted() || task.getDueTimestamp() < now;
+            default:
+                return true;
+        }
+    }
+
+    private static String keyOf(TaskFilter filter) {
+        StringBuilder key = new StringBuilder().append(filter.getMode());
+        if (filter.usesDateRange()) {
+            key.append(':').append(filter.getStartDate()).append('-').append(filter.getEndDate());
+        }
+        return key.append(':').append(filter.getPriorities()).toString();
+    }
+
+    private void add(Task task) {
+        byId.put(task.getId(), task);
+        all.add(task);
+        (task.isCompleted() ? completed : active).add(task);
+        NavigableSet<Task> priority = byPriority.get(task.getPriority());
+        if (priority == null) {
+            priority = new TreeSet<>(BY_DUE);
+            byPriority.put(task.getPriority(), priority);
+        }
+        priority.add(task);
+    }
+
+    private void removeById(int id) {
+        Task task = byId.remove(id);
+        if (task == null) return;
+        all.remove(task);
+        (task.isCompleted() ? completed : active).remove(task);
+        byPriority.get(task.getPriority()).remove(task);
+    }
+
+    private void reset() {
+        byId.clear();
+        all.clear();
+        active.clear();
+        completed.clear();
+        byPriority.clear();
+        results.clear();
+    }
+
+    private static int indexOf(List<Task> rows, int id) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getId() == id) return i;
+        }
+        return -1;
+    }
+
+    private static List<Task> copyOf(List<Task> rows) {
+        List<Task> copies = new ArrayList<>(rows.size());
+        for (Task task : rows) {
+            copies.add(new Task(task));
+        }
+        return copies;
+    }
+
+    // Search key for the sorted sets
+    private static Task probe(long dueTimestamp, int id) {
+        Task probe = new Task();
+        probe.setDueTimestamp(dueTimestamp);
+        probe.setId(id);
+        return probe;
+    }
+
+    private static final class Result {
+        final List<Task> rows;
+        long computedAt = Long.MIN_VALUE;
+        long validUntil = Long.MAX_VALUE;
+
+        Result(List<Task> rows) {
+            this.rows = rows;
+        }
+    }
+}
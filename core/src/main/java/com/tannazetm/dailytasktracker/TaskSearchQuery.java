@@ -0,0 +1,82 @@
+package com.tannazetm.dailytasktracker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Turns search bar input into FTS4 MATCH expressions for TaskDao.searchTasks. Words become
+// prefix terms (all of them must match), text in double quotes becomes a phrase, and anything
+// that isn't a letter or digit is dropped, so user input can never form FTS operators or a
+// malformed expression.
+public final class TaskSearchQuery {
+
+    // Shorter words only match whole tokens; a one-letter prefix would expand to most of the index
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private final String match;      // title or description
+    private final String titleMatch; // same terms restricted to the title, for ranking
+
+    private TaskSearchQuery(String match, String titleMatch) {
+        this.match = match;
+        this.titleMatch = titleMatch;
+    }
+
+    // Null when the input has no searchable words
+    public static TaskSearchQuery parse(String input) {
+        if (input == null) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>();
+        boolean quoted = false;
+        int start = 0;
+        // A closing quote is implied at the end, so the last phrase still works while typing
+        for (String part : (input + (countQuotes(input) % 2 == 1 ? "\"" : "")).split("\"", -1)) {
+            List<String> words = words(part);
+            if (quoted && words.size() > 1) {
+                terms.add("\"" + String.join(" ", words) + "\"");
+            } else {
+                for (String word : words) {
+                    terms.add(word.length() >= MIN_PREFIX_LENGTH ? word + "*" : word);
+                }
+            }
+            quoted = !quoted;
+        }
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder titleMatch = new StringBuilder();
+        for (String term : terms) {
+            if (titleMatch.length() > 0) titleMatch.append(' ');
+            titleMatch.append("title:").append(term);
+        }
+        return new TaskSearchQuery(String.join(" ", terms), titleMatch.toString());
+    }
+
+    public String getMatch() { return match; }
+
+    public String getTitleMatch() { return titleMatch; }
+
+    private static int countQuotes(String input) {
+        int count = 0;
+        for (int i = 0; i < input.length(); i++) {
+            if (input.charAt(i) == '"') count++;
+        }
+        return count;
+    }
+
+    // Runs of letters and digits, lower-cased like the FTS "simple" tokenizer folds them
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,66 @@
+package com.tannazetm.dailytasktracker;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One tracked interval of a task, in exact milliseconds. Rows are only ever appended (see
+// Task.takeFinishedSessions); Task.actualDuration stays as the per-task rollup in whole minutes.
+// Sessions are split at local midnight so every row falls inside one day and per-day/per-week
+// totals are plain range scans over the start index. Keep TaskDatabase.MIGRATION_3_4 in sync.
+@Entity(tableName = "task_sessions",
+        foreignKeys = @ForeignKey(entity = Task.class, parentColumns = "id", childColumns = "taskId",
+                onDelete = ForeignKey.CASCADE),
+        indices = {
+                // Sessions of one task
+                @Index(name = "index_task_sessions_taskId", value = {"taskId"}),
+                // Tracked time in a date range; covering, so sums never touch the table
+                @Index(name = "index_task_sessions_startMillis_endMillis", value = {"startMillis", "endMillis"})
+        })
+public class TaskSession {
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    private int taskId;
+    private long startMillis;
+    private long endMillis;
+
+    public TaskSession(int taskId, long startMillis, long endMillis) {
+        this.taskId = taskId;
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+    }
+
+    // The interval [startMillis, endMillis) cut at each local midnight it crosses
+    public static List<TaskSession> split(int taskId, long startMillis, long endMillis) {
+        List<TaskSession> sessions = new ArrayList<>();
+        long start = startMillis;
+        while (start < endMillis) {
+            long nextDay = DayRange.dayOf(start).getEnd() + 1;
+            long end = Math.min(endMillis, nextDay);
+            sessions.add(new TaskSession(taskId, start, end));
+            start = end;
+        }
+        return sessions;
+    }
+
+    public long getDurationMillis() {
+        return endMillis - startMillis;
+    }
+
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
+    public int getTaskId() { return taskId; }
+    public void setTaskId(int taskId) { this.taskId = taskId; }
+
+    public long getStartMillis() { return startMillis; }
+    public void setStartMillis(long startMillis) { this.startMillis = startMillis; }
+
+    public long getEndMillis() { return endMillis; }
+    public void setEndMillis(long endMillis) { this.endMillis = endMillis; }
+}
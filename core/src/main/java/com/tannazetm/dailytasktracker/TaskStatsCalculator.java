@@ -0,0 +1,49 @@
+package com.tannazetm.dailytasktracker;
+
+import java.util.Collection;
+
+// Task statistics: the Dashboard totals derived from the per-priority task_stats aggregates
+// (TaskStatsDao.getPriorityStats).
+public final class TaskStatsCalculator {
+
+    public static final int MIN_PRIORITY = 1;
+    public static final int MAX_PRIORITY = 3;
+
+    private TaskStatsCalculator() {
+    }
+
+    public static Summary summarize(Collection<PriorityStats> stats) {
+        Summary summary = new Summary();
+        for (PriorityStats row : stats) {
+            summary.taskCount += row.taskCount;
+            summary.completedCount += row.completedCount;
+            summary.minutes += row.minutes;
+            if (row.priority >= MIN_PRIORITY && row.priority <= MAX_PRIORITY) {
+                summary.priorityMinutes[row.priority] += row.minutes;
+            }
+        }
+        return summary;
+    }
+
+    // Totals across priorities, as shown on the Dashboard
+    public static final class Summary {
+        private int taskCount;
+        private int completedCount;
+        private int minutes;
+        private final int[] priorityMinutes = new int[MAX_PRIORITY + 1];
+
+        public int getTaskCount() { return taskCount; }
+
+        public int getCompletedCount() { return completedCount; }
+
+        public int getMinutes() { return minutes; }
+
+        // Minutes for one priority (1=Low, 2=Medium, 3=High)
+        public int getPriorityMinutes(int priority) { return priorityMinutes[priority]; }
+
+        // Completed share in whole percent, 0 when there are no tasks
+        public int getProgressPercent() {
+            return taskCount > 0 ? (completedCount * 100) / taskCount : 0;
+        }
+    }
+}
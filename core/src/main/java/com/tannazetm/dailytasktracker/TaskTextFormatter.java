@@ -0,0 +1,57 @@
+package com.tannazetm.dailytasktracker;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+// Text for the task row and Dashboard labels. The date formatters and the local day boundaries
+// behind "Today"/"Tomorrow" are created once and reused; like SimpleDateFormat itself, an
+// instance is for one thread only.
+public final class TaskTextFormatter {
+
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("h:mm a", Locale.getDefault());
+    private final SimpleDateFormat dateTimeFormat = new SimpleDateFormat("MMM dd, h:mm a", Locale.getDefault());
+    private final Date date = new Date();
+
+    // Start of today, tomorrow and the day after; recomputed once the clock passes midnight
+    private long todayStart;
+    private long tomorrowStart;
+    private long dayAfterStart;
+
+    public TaskTextFormatter() {
+        refreshDays();
+    }
+
+    public String formatDueTime(long timestamp) {
+        if (System.currentTimeMillis() >= tomorrowStart) {
+            refreshDays();
+        }
+        date.setTime(timestamp);
+        if (timestamp >= todayStart && timestamp < tomorrowStart) {
+            return "Today " + timeFormat.format(date);
+        } else if (timestamp >= tomorrowStart && timestamp < dayAfterStart) {
+            return "Tomorrow " + timeFormat.format(date);
+        } else {
+            return dateTimeFormat.format(date);
+        }
+    }
+
+    // Compact duration for the row, e.g. "45m", "2h", "1h 30m"
+    public static String formatDurationShort(int minutes) {
+        if (minutes < 60) {
+            return minutes + "m";
+        } else {
+            int hours = minutes / 60;
+            int mins = minutes % 60;
+            return mins == 0 ? hours + "h" : hours + "h " + mins + "m";
+        }
+    }
+
+    private void refreshDays() {
+        DayRange today = DayRange.today();
+        DayRange tomorrow = DayRange.tomorrow();
+        todayStart = today.getStart();
+        tomorrowStart = tomorrow.getStart();
+        dayAfterStart = tomorrow.getEnd() + 1;
+    }
+}
@@ -0,0 +1,41 @@
+package com.tannazetm.dailytasktracker;
+
+// Time source for task tracking (Task.startTask/stopTask and the live tracking rows), in
+// milliseconds on the wall-clock scale. The app installs BootClock at process start, which can't
+// jump when the user or the network changes the wall clock. Tests swap in a fixed clock with set().
+public abstract class TrackingClock {
+
+    private static volatile TrackingClock current;
+
+    // Milliseconds on the wall-clock scale; never goes backwards within one boot
+    public abstract long now();
+
+    public static TrackingClock get() {
+        TrackingClock clock = current;
+        if (clock == null) {
+            // Nothing installed (plain JVM): the wall clock at first use plus System.nanoTime()
+            clock = new NanoTime(System.currentTimeMillis(), System.nanoTime());
+            current = clock;
+        }
+        return clock;
+    }
+
+    public static void set(TrackingClock clock) {
+        current = clock;
+    }
+
+    private static final class NanoTime extends TrackingClock {
+        private final long anchorMillis;
+        private final long anchorNanos;
+
+        NanoTime(long anchorMillis, long anchorNanos) {
+            this.anchorMillis = anchorMillis;
+            this.anchorNanos = anchorNanos;
+        }
+
+        @Override
+        public long now() {
+            return anchorMillis + (System.nanoTime() - anchorNanos) / 1000000;
+        }
+    }
+}
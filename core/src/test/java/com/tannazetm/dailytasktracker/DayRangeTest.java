@@ -0,0 +1,58 @@
+package com.tannazetm.dailytasktracker;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * DayRange in a time zone with DST: days keep their real length and times of day survive a
+ * move across the change.
+ */
+public class DayRangeTest {
+
+    private TimeZone defaultZone;
+
+    @Before
+    public void setUp() {
+        defaultZone = TimeZone.getDefault();
+        // Clocks go forward on 10 March 2024 and back on 3 November 2024
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(defaultZone);
+    }
+
+    @Test
+    public void dayOf_dstDayIs23Hours() {
+        DayRange day = DayRange.dayOf(local(2024, Calendar.MARCH, 10, 12, 0));
+
+        assertEquals(23 * 60 * 60 * 1000L, day.getEnd() + 1 - day.getStart());
+    }
+
+    @Test
+    public void atTimeOf_keepsLocalTimeAcrossTheChange() {
+        long nineBefore = local(2024, Calendar.MARCH, 8, 9, 30);
+        DayRange after = DayRange.dayOf(local(2024, Calendar.MARCH, 11, 0, 0));
+        DayRange dstDay = DayRange.dayOf(local(2024, Calendar.MARCH, 10, 0, 0));
+        DayRange fallBack = DayRange.dayOf(local(2024, Calendar.NOVEMBER, 4, 0, 0));
+
+        assertEquals(local(2024, Calendar.MARCH, 11, 9, 30), after.atTimeOf(nineBefore));
+        assertEquals(local(2024, Calendar.MARCH, 10, 9, 30), dstDay.atTimeOf(nineBefore));
+        assertEquals(local(2024, Calendar.NOVEMBER, 4, 9, 30),
+                fallBack.atTimeOf(local(2024, Calendar.MARCH, 11, 9, 30)));
+    }
+
+    private static long local(int year, int month, int day, int hour, int minute) {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(year, month, day, hour, minute);
+        return cal.getTimeInMillis();
+    }
+}
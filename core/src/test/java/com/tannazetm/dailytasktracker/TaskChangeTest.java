@@ -0,0 +1,63 @@
+package com.tannazetm.dailytasktracker;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * TaskChange: the column groups the adapter's edits touch, so the write-behind flush can pick
+ * TaskDao's partial updates.
+ */
+public class TaskChangeTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    public void sameTask_noChanges() {
+        Task task = task();
+        assertEquals(0, TaskChange.between(task, new Task(task)));
+    }
+
+    @Test
+    public void complete_stopsTrackingAndClearsImmediate() {
+        Task before = task();
+        before.setImmediate(true);
+        before.startTask(NOW);
+        Task after = new Task(before);
+
+        // As TaskAdapter's checkbox does it
+        after.setCompleted(true);
+        after.setImmediate(false);
+        after.stopTask(NOW + 90_000);
+
+        assertEquals(TaskChange.COMPLETION | TaskChange.IMMEDIATE | TaskChange.TRACKING_START
+                | TaskChange.TRACKING_TOTALS, TaskChange.between(before, after));
+    }
+
+    @Test
+    public void start_touchesOnlyTheStartColumns() {
+        Task before = task();
+        Task after = new Task(before);
+        after.startTask(NOW);
+
+        assertEquals(TaskChange.TRACKING_START, TaskChange.between(before, after));
+    }
+
+    @Test
+    public void reschedule_andEdits() {
+        Task before = task();
+        Task moved = new Task(before);
+        moved.setDueTimestamp(NOW + 1);
+        Task edited = new Task(before);
+        edited.setTitle("Renamed");
+
+        assertEquals(TaskChange.SCHEDULE, TaskChange.between(before, moved));
+        assertEquals(TaskChange.OTHER, TaskChange.between(before, edited));
+    }
+
+    private static Task task() {
+        Task task = new Task("Task", "", NOW, 30);
+        task.setId(1);
+        return task;
+    }
+}
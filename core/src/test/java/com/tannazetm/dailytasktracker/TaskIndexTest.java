@@ -0,0 +1,153 @@
+package com.tannazetm.dailytasktracker;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * TaskIndex: filter results in the order TaskQueryBuilder's SQL returns them, and coherence with
+ * writes made after the results were cached.
+ */
+public class TaskIndexTest {
+
+    private static final long NOW = 1_000_000L;
+    private static final DayRange RANGE = DayRange.dayOf(NOW);
+
+    private TaskIndex index;
+
+    @Before
+    public void setUp() {
+        index = new TaskIndex();
+        index.load(Arrays.asList(
+                task(1, NOW + 300, false, false, 2),
+                task(2, NOW - 100, false, false, 3),
+                task(3, NOW + 100, true, false, 1),
+                task(4, NOW - 200, false, true, 2),
+                task(5, NOW + 200, false, true, 3),
+                task(6, NOW + 100, false, false, 2)));
+    }
+
+    @Test
+    public void query_notLoaded_returnsNull() {
+        assertNull(new TaskIndex().query(filter(null, TaskFilter.STATUS_ALL)));
+    }
+
+    @Test
+    public void query_allWithoutRange_activeFirstThenCompleted() {
+        assertEquals(Arrays.asList(4, 2, 6, 5, 1, 3), ids(index.query(filter(null, TaskFilter.STATUS_ALL))));
+    }
+
+    @Test
+    public void query_allInRange_immediateFirst() {
+        assertEquals(Arrays.asList(4, 5, 2, 3, 6, 1), ids(index.query(filter(RANGE, TaskFilter.STATUS_ALL))));
+    }
+
+    @Test
+    public void query_completed_latestDueFirst() {
+        assertEquals(Arrays.asList(3), ids(index.query(filter(null, TaskFilter.STATUS_COMPLETED))));
+    }
+
+    @Test
+    public void query_overdue_ignoresDateRange() {
+        assertEquals(Arrays.asList(4, 2), ids(index.query(filter(DayRange.tomorrow(), TaskFilter.STATUS_OVERDUE))));
+    }
+
+    @Test
+    public void query_completedOrOverdue_immediateFirst() {
+        int statuses = TaskFilter.STATUS_COMPLETED | TaskFilter.STATUS_OVERDUE;
+        assertEquals(Arrays.asList(4, 2, 3), ids(index.query(filter(null, statuses))));
+    }
+
+    @Test
+    public void query_priorities() {
+        TaskFilter single = new TaskFilter(null, TaskFilter.STATUS_ACTIVE, 2, NOW);
+        TaskFilter several = new TaskFilter(null, TaskFilter.STATUS_ACTIVE, Arrays.asList(1, 3), NOW);
+
+        assertEquals(Arrays.asList(4, 6, 1), ids(index.query(single)));
+        assertEquals(Arrays.asList(5, 2), ids(index.query(several)));
+    }
+
+    @Test
+    public void query_seesWritesAfterCaching() {
+        TaskFilter active = filter(null, TaskFilter.STATUS_ACTIVE);
+        assertEquals(Arrays.asList(4, 5, 2, 6, 1), ids(index.query(active)));
+
+        Task done = index.get(6);
+        done.setCompleted(true);
+        index.put(done);
+        index.put(task(7, NOW + 50, false, false, 1));
+        index.remove(1);
+
+        assertEquals(Arrays.asList(4, 5, 2, 7), ids(index.query(active)));
+    }
+
+    @Test
+    public void query_overdueFollowsCurrentTime() {
+        assertEquals(Arrays.asList(4, 2), ids(index.query(filter(null, TaskFilter.STATUS_OVERDUE))));
+
+        TaskFilter later = new TaskFilter(null, TaskFilter.STATUS_OVERDUE, -1, NOW + 150);
+        assertEquals(Arrays.asList(4, 2, 6), ids(index.query(later)));
+    }
+
+    @Test
+    public void query_returnsCopies() {
+        index.query(filter(null, TaskFilter.STATUS_ALL)).get(0).setCompleted(true);
+
+        assertFalse(index.get(4).isCompleted());
+    }
+
+    @Test
+    public void page_continuesAfterTheGivenTask() {
+        TaskFilter all = filter(null, TaskFilter.STATUS_ALL);
+
+        assertEquals(Arrays.asList(4, 2), ids(index.page(all, null, 2)));
+        assertEquals(Arrays.asList(6, 5), ids(index.page(all, 2, 2)));
+        assertEquals(Collections.<Integer>emptyList(), ids(index.page(all, 3, 2)));
+        assertNull(index.page(all, 42, 2));
+    }
+
+    @Test
+    public void put_beforeLoad_isIgnored() {
+        TaskIndex fresh = new TaskIndex();
+        fresh.put(task(1, NOW, false, false, 1));
+        assertFalse(fresh.isLoaded());
+
+        fresh.load(Collections.<Task>emptyList());
+        assertEquals(0, fresh.size());
+    }
+
+    @Test
+    public void clear_unloads() {
+        index.clear();
+
+        assertFalse(index.isLoaded());
+        assertNull(index.query(filter(null, TaskFilter.STATUS_ALL)));
+    }
+
+    private static TaskFilter filter(DayRange range, int statuses) {
+        return new TaskFilter(range, statuses, -1, NOW);
+    }
+
+    private static Task task(int id, long due, boolean completed, boolean immediate, int priority) {
+        Task task = new Task("Task " + id, "", due, 30);
+        task.setId(id);
+        task.setCompleted(completed);
+        task.setImmediate(immediate);
+        task.setPriority(priority);
+        return task;
+    }
+
+    private static List<Integer> ids(List<Task> tasks) {
+        List<Integer> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+}
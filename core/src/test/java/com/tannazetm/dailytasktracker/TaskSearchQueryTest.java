@@ -0,0 +1,40 @@
+package com.tannazetm.dailytasktracker;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TaskSearchQueryTest {
+
+    @Test
+    public void words_becomePrefixTerms() {
+        TaskSearchQuery query = TaskSearchQuery.parse("Weekly Rep");
+        assertEquals("weekly* rep*", query.getMatch());
+        assertEquals("title:weekly* title:rep*", query.getTitleMatch());
+    }
+
+    @Test
+    public void singleLetters_matchWholeTokensOnly() {
+        assertEquals("a plan*", TaskSearchQuery.parse("a plan").getMatch());
+    }
+
+    @Test
+    public void quotedText_becomesPhrase() {
+        TaskSearchQuery query = TaskSearchQuery.parse("\"client call\" notes");
+        assertEquals("\"client call\" notes*", query.getMatch());
+        assertEquals("title:\"client call\" title:notes*", query.getTitleMatch());
+    }
+
+    @Test
+    public void unclosedQuote_isClosed() {
+        assertEquals("\"client call\"", TaskSearchQuery.parse("\"client call").getMatch());
+    }
+
+    @Test
+    public void operatorsAndPunctuation_areDropped() {
+        // FTS operators are upper case only, so a lower-cased "or" is a plain term
+        assertEquals("foo* bar* or*", TaskSearchQuery.parse("foo* -bar OR:(").getMatch());
+        assertNull(TaskSearchQuery.parse("  *-()  "));
+        assertNull(TaskSearchQuery.parse(null));
+    }
+}
@@ -0,0 +1,46 @@
+package com.tannazetm.dailytasktracker;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * TaskStatsCalculator: the Dashboard summary over per-priority rows.
+ */
+public class TaskStatsCalculatorTest {
+
+    @Test
+    public void summarize_totalsAcrossPriorities() {
+        TaskStatsCalculator.Summary summary = TaskStatsCalculator.summarize(Arrays.asList(
+                row(1, 1, 1, 30), row(2, 1, 0, 90), row(3, 1, 0, 0)));
+
+        assertEquals(3, summary.getTaskCount());
+        assertEquals(1, summary.getCompletedCount());
+        assertEquals(120, summary.getMinutes());
+        assertEquals(30, summary.getPriorityMinutes(1));
+        assertEquals(90, summary.getPriorityMinutes(2));
+        assertEquals(0, summary.getPriorityMinutes(3));
+        assertEquals(33, summary.getProgressPercent());
+    }
+
+    @Test
+    public void summarize_emptyHasNoProgress() {
+        TaskStatsCalculator.Summary summary =
+                TaskStatsCalculator.summarize(Collections.<PriorityStats>emptyList());
+
+        assertEquals(0, summary.getTaskCount());
+        assertEquals(0, summary.getProgressPercent());
+    }
+
+    private static PriorityStats row(int priority, int taskCount, int completedCount, int minutes) {
+        PriorityStats row = new PriorityStats();
+        row.priority = priority;
+        row.taskCount = taskCount;
+        row.completedCount = completedCount;
+        row.minutes = minutes;
+        return row;
+    }
+}
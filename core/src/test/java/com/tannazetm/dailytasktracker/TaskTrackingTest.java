@@ -0,0 +1,108 @@
+package com.tannazetm.dailytasktracker;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Task time accounting against a hand-driven TrackingClock.
+ */
+public class TaskTrackingTest {
+
+    private static final long SECOND_MS = 1000L;
+
+    private final FixedClock clock = new FixedClock();
+
+    @Before
+    public void installClock() {
+        TrackingClock.set(clock);
+    }
+
+    @After
+    public void removeClock() {
+        TrackingClock.set(null);
+    }
+
+    @Test
+    public void subMinuteSessions_addUpToWholeMinutes() {
+        Task task = new Task("Task");
+
+        track(task, 40 * SECOND_MS);
+        assertEquals(0, task.getActualDuration());
+        assertEquals(40 * SECOND_MS, task.getTrackedMillis());
+
+        track(task, 40 * SECOND_MS);
+        assertEquals(1, task.getActualDuration());
+        assertEquals(80 * SECOND_MS, task.getTrackedMillis());
+    }
+
+    @Test
+    public void runningSession_continuesStoredRemainder() {
+        Task task = new Task("Task");
+        track(task, 50 * SECOND_MS);
+
+        task.startTask();
+        clock.advance(9 * SECOND_MS);
+        assertEquals(0, task.getTotalTrackedMinutes());
+        clock.advance(SECOND_MS);
+        assertEquals(1, task.getTotalTrackedMinutes());
+        assertEquals(10 * SECOND_MS, task.getCurrentSessionMillis(clock.now()));
+    }
+
+    @Test
+    public void manualMinutes_arePreserved() {
+        Task task = new Task("Task");
+        task.setActualDuration(20);
+
+        track(task, 90 * SECOND_MS);
+        assertEquals(21, task.getActualDuration());
+    }
+
+    @Test
+    public void clockGoingBackwards_neverSubtracts() {
+        Task task = new Task("Task");
+        task.startTask();
+        clock.advance(-5 * SECOND_MS);
+        task.stopTask();
+
+        assertEquals(0, task.getTrackedMillis());
+        assertTrue(task.takeFinishedSessions().isEmpty());
+    }
+
+    @Test
+    public void stoppedSession_isHandedOutOnce() {
+        Task task = new Task("Task");
+        task.setId(7);
+        track(task, 30 * SECOND_MS);
+
+        List<TaskSession> sessions = task.takeFinishedSessions();
+        assertEquals(1, sessions.size());
+        assertEquals(7, sessions.get(0).getTaskId());
+        assertEquals(30 * SECOND_MS, sessions.get(0).getDurationMillis());
+        assertTrue(task.takeFinishedSessions().isEmpty());
+    }
+
+    private void track(Task task, long millis) {
+        task.startTask();
+        clock.advance(millis);
+        task.stopTask();
+    }
+
+    private static final class FixedClock extends TrackingClock {
+        // Midday, so sessions in these tests never cross midnight
+        private long now = DayRange.today().getStart() + 12 * 60 * 60 * SECOND_MS;
+
+        void advance(long millis) {
+            now += millis;
+        }
+
+        @Override
+        public long now() {
+            return now;
+        }
+    }
+}
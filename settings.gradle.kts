@@ -21,3 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "Daily Task Tracker"
 include(":app")
+include(":core")
+include(":benchmark")